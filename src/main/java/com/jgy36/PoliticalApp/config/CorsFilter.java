@@ -32,6 +32,9 @@ public class CorsFilter implements Filter {
 
         response.setHeader("Access-Control-Allow-Credentials", "true");
 
+        // Let browser clients read the feed and inbox pagination cursors
+        response.setHeader("Access-Control-Expose-Headers", "X-Next-Cursor, X-Since-Cursor");
+
         // Handle preflight OPTIONS requests
         if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
             response.setStatus(HttpServletResponse.SC_OK);
@@ -1,25 +1,79 @@
 package com.jgy36.PoliticalApp.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jgy36.PoliticalApp.utils.TokenDigest;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenUtil.class);
+
     @Value("${jwt.secret}") // ✅ Inject secret from properties
     private String secret;
 
     @Value("${jwt.expirationMs}") // ✅ Inject expiration time from properties
     private long expirationMs;
 
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private long verifiedCacheSize;
+
+    // Upper bound for tokens without an expiration claim
+    @Value("${jwt.verified-cache.max-ttl-ms:900000}")
+    private long verifiedCacheMaxTtlMs;
+
+    // Decoded once - the secret doesn't change while the app runs
+    private SecretKey key;
+    private JwtParser parser;
+
+    // Claims of tokens whose signature already checked out, keyed by SHA-256 of the token so
+    // bearer tokens aren't kept in memory. Each entry expires when its token does.
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parser().verifyWith(key).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        long ttlMs = verifiedCacheMaxTtlMs;
+                        if (claims.getExpiration() != null) {
+                            ttlMs = Math.min(ttlMs, claims.getExpiration().getTime() - System.currentTimeMillis());
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * ✅ Generates a JWT token for an authenticated user.
      *
@@ -27,8 +81,6 @@ public class JwtTokenUtil {
      * @return A JWT token as a String.
      */
     public String generateToken(String email) {
-        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-
         return Jwts.builder()
                 .subject(email)
                 .issuedAt(new Date())
@@ -45,7 +97,6 @@ public class JwtTokenUtil {
      * @return JWT token
      */
     public String generateToken(String email, int expirationSeconds) {
-        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + (expirationSeconds * 1000L));
 
@@ -61,7 +112,6 @@ public class JwtTokenUtil {
      * ✅ Generates a temporary token for 2FA verification
      */
     public String generateTempToken(String email) {
-        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + 300000); // 5 minutes
 
@@ -79,12 +129,7 @@ public class JwtTokenUtil {
      */
     public Claims validateTempToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = extractAllClaims(token);
 
             if (!"temp".equals(claims.get("type"))) {
                 throw new RuntimeException("Invalid token type");
@@ -106,17 +151,9 @@ public class JwtTokenUtil {
      */
     public String getUsernameFromToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            System.out.println("✅ Extracted Username from Token: " + claims.getSubject());
-            return claims.getSubject();
+            return extractAllClaims(token).getSubject();
         } catch (Exception e) {
-            System.out.println("❌ Error extracting username from JWT: " + e.getMessage());
+            logger.debug("Could not extract the username from a token: {}", e.getMessage());
             return null;
         }
     }
@@ -146,15 +183,20 @@ public class JwtTokenUtil {
 
     /**
      * ✅ Parses the JWT token and retrieves all claims.
+     * A token seen before is served from the verified-token cache without checking its signature
+     * again; invalid and expired tokens are never cached, so they throw every time.
      *
      * @param token The JWT token.
      * @return The claims inside the token.
      */
     private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-        JwtParser parser = Jwts.parser().verifyWith(key).build();
-
-        return parser.parseSignedClaims(token).getPayload();
+        String digest = TokenDigest.sha256Hex(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
     /**
@@ -180,17 +222,17 @@ public class JwtTokenUtil {
             Date expiration = claims.getExpiration();
 
             if (expiration.before(new Date())) {
-                System.out.println("🚨 Token expired at: " + expiration);
+                logger.debug("Token expired at {}", expiration);
                 return false;
             }
 
             String email = getUsernameFromToken(token);
             return (email.equals(userDetails.getUsername()));
         } catch (ExpiredJwtException e) {
-            System.out.println("🚨 Token is expired!");
+            logger.debug("Token is expired");
             return false;
         } catch (JwtException e) {
-            System.out.println("🚨 Invalid token!");
+            logger.debug("Invalid token: {}", e.getMessage());
             return false;
         }
     }
@@ -202,14 +244,6 @@ public class JwtTokenUtil {
      * @return The expiration timestamp.
      */
     public long getExpirationFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getExpiration().getTime();
+        return extractAllClaims(token).getExpiration().getTime();
     }
 }
@@ -0,0 +1,62 @@
+package com.jgy36.PoliticalApp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Matches requests whose URI starts with any of a fixed set of prefixes.
+ * The prefixes are compiled into a character trie up front, so a match walks the URI once
+ * and stops at the first character no prefix continues with - nothing is allocated per request.
+ */
+public final class PathPrefixMatcher implements RequestMatcher {
+
+    private final Node root = new Node();
+    private final String[] prefixes;
+
+    public PathPrefixMatcher(String... prefixes) {
+        this.prefixes = prefixes.clone();
+        for (String prefix : prefixes) {
+            Node node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+            }
+            node.terminal = true;
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return matches(request.getRequestURI());
+    }
+
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            if (node.terminal) {
+                return true;
+            }
+            node = node.children.get(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.terminal;
+    }
+
+    @Override
+    public String toString() {
+        return "PathPrefixMatcher" + Arrays.toString(prefixes);
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private boolean terminal;
+    }
+}
@@ -0,0 +1,48 @@
+package com.jgy36.PoliticalApp.config;
+
+/**
+ * Routes that SecurityConfig and JwtTokenFilter both need to agree on.
+ */
+public final class PublicPaths {
+
+    /**
+     * Files served straight from disk or the classpath (see WebConfig and MediaConfig).
+     * Spring Security ignores these entirely, so they never reach the JWT filter.
+     */
+    public static final String[] STATIC_RESOURCES = {
+            "/uploads/**",
+            "/media/**",
+            "/images/**",
+            "/css/**",
+            "/js/**"
+    };
+
+    /**
+     * Endpoints SecurityConfig lets anyone call, whatever the method. Covers every TOKENLESS auth
+     * route plus the ones that use a token when there is one (logout, verify-2fa).
+     */
+    public static final String[] OPEN_ENDPOINTS = {
+            "/api/auth/**",
+            // The handshake can't carry headers; StompAuthChannelInterceptor checks CONNECT
+            WebSocketConfig.ENDPOINT + "/**"
+    };
+
+    /**
+     * Endpoints that don't act on a caller's token; JwtTokenFilter doesn't look at them.
+     * Matched as plain prefixes, the same way the filter always has.
+     */
+    public static final PathPrefixMatcher TOKENLESS = new PathPrefixMatcher(
+            "/api/auth/register",
+            "/api/auth/login",
+            "/api/auth/refresh",
+            "/api/auth/check-username",
+            "/api/auth/verify",
+            "/swagger-ui",
+            "/v3/api-docs",
+            // WebSocket handshake; the token comes in the STOMP CONNECT frame instead
+            WebSocketConfig.ENDPOINT
+    );
+
+    private PublicPaths() {
+    }
+}
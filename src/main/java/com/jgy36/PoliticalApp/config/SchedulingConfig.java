@@ -0,0 +1,43 @@
+package com.jgy36.PoliticalApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Runs the @Scheduled jobs (outbox dispatch, like and ack flushes, archival, reconciliation)
+ * on their own scheduler, configured by spring.task.scheduling.* like Boot's default one.
+ * Boot stops creating that default once the WebSocket broker registers its heartbeat scheduler,
+ * which would otherwise pick up every job as well.
+ * <p>
+ * Boot's pool size defaults to one thread, which would let a slow job (the autocomplete reload,
+ * a blacklist rebuild waiting on Redis) hold up every flush and notification dispatch behind it.
+ * Here it defaults to app.scheduling.pool-size threads instead.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private final ThreadPoolTaskSchedulerBuilder schedulerBuilder;
+
+    // spring.task.scheduling.pool.size still wins when it is set
+    @Value("${spring.task.scheduling.pool.size:${app.scheduling.pool-size:8}}")
+    private int poolSize;
+
+    public SchedulingConfig(ThreadPoolTaskSchedulerBuilder schedulerBuilder) {
+        this.schedulerBuilder = schedulerBuilder;
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return schedulerBuilder.poolSize(poolSize).build();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler());
+    }
+}
@@ -1,6 +1,9 @@
 package com.jgy36.PoliticalApp.config;
 
 import com.jgy36.PoliticalApp.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,6 +11,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -19,6 +23,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 public class SecurityConfig {
@@ -27,6 +32,9 @@ public class SecurityConfig {
     private final JwtTokenFilter jwtTokenFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
+    // Shared with the WebSocket endpoint (see WebSocketConfig)
+    @Value("${app.cors.allowed-origins:*}")
+    private List<String> allowedOrigins;
 
     // Using constructor injection instead of @Autowired field injection
     public SecurityConfig(
@@ -59,7 +67,7 @@ public class SecurityConfig {
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
-        configuration.setAllowedOrigins(Arrays.asList("*"));
+        configuration.setAllowedOrigins(allowedOrigins);
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 
         // Add all required headers including cache-control, pragma
@@ -69,6 +77,9 @@ public class SecurityConfig {
                 "Cache-Control", "Pragma", "Expires"
         ));
 
+        // Let browser clients read the feed and inbox pagination cursors
+        configuration.setExposedHeaders(List.of("X-Next-Cursor", "X-Since-Cursor"));
+
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -77,6 +88,25 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Static files skip the security filter chain entirely - no JWT parsing, no principal lookup.
+     */
+    @Bean
+    public WebSecurityCustomizer webSecurityCustomizer() {
+        return web -> web.ignoring().requestMatchers(PublicPaths.STATIC_RESOURCES);
+    }
+
+    /**
+     * JwtTokenFilter is a @Component, so Boot would also register it as a plain servlet filter
+     * and run it in front of everything, ignored paths included. It belongs in the security chain only.
+     */
+    @Bean
+    public FilterRegistrationBean<JwtTokenFilter> jwtTokenFilterRegistration() {
+        FilterRegistrationBean<JwtTokenFilter> registration = new FilterRegistrationBean<>(jwtTokenFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -84,8 +114,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        // Static Resources
-                        .requestMatchers("/images/**", "/css/**", "/js/**").permitAll()
+                        // Async dispatches (SSE streams completing) were authorized when the request started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 
                         // OAuth2 Authorization Endpoints
                         .requestMatchers("/oauth2/authorization/**").permitAll()
@@ -93,8 +123,7 @@ public class SecurityConfig {
                         .requestMatchers("/login/oauth2/code/**").permitAll()
 
                         // Public Endpoints
-                        .requestMatchers("/api/auth/**").permitAll()  // Public Auth Routes
-                        .requestMatchers("/api/auth/verify").permitAll()  // Add this line explicitly
+                        .requestMatchers(PublicPaths.OPEN_ENDPOINTS).permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/comments/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/communities/**").permitAll()
@@ -102,8 +131,6 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/users/search").permitAll()
                         .requestMatchers(HttpMethod.GET, "/politicians/**").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .requestMatchers("/uploads/**").permitAll()
-                        .requestMatchers("/media/**").permitAll()
                         .requestMatchers("/api/uploads/**").permitAll()  // <-- ADD THIS LINE
                         .requestMatchers("/api/test/**").permitAll()  // Test endpoints
 
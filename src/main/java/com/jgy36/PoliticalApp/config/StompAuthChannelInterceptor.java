@@ -0,0 +1,176 @@
+package com.jgy36.PoliticalApp.config;
+
+import com.jgy36.PoliticalApp.repository.ConversationRepository;
+import com.jgy36.PoliticalApp.service.TokenBlacklistService;
+import com.jgy36.PoliticalApp.service.UserDetailsServiceImpl;
+import com.jgy36.PoliticalApp.service.messaging.MessagingGateway;
+import com.jgy36.PoliticalApp.service.principal.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authentication and authorization for STOMP frames - the WebSocket counterpart of JwtTokenFilter.
+ * The handshake itself is public (browsers can't set headers on it), so the client sends its
+ * token in the CONNECT frame's Authorization header. A session may only subscribe to the
+ * conversations it takes part in and to the presence of users it shares a conversation with,
+ * and may only SEND to application destinations, never straight to a broker topic. Message
+ * handlers run with the session's user in the SecurityContext.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ExecutorChannelInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+
+    // Session attribute: conversations this session was checked as a participant of
+    private static final String CONVERSATIONS_ATTRIBUTE = "conversations";
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final ConversationRepository conversationRepository;
+
+    public StompAuthChannelInterceptor(
+            JwtTokenUtil jwtTokenUtil,
+            TokenBlacklistService tokenBlacklistService,
+            UserDetailsServiceImpl userDetailsService,
+            ConversationRepository conversationRepository) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.userDetailsService = userDetailsService;
+        this.conversationRepository = conversationRepository;
+    }
+
+    /**
+     * Whether the session has subscribed to the conversation, which means it's a participant
+     */
+    public static boolean hasJoined(Map<String, Object> sessionAttributes, Long conversationId) {
+        Object joined = sessionAttributes != null ? sessionAttributes.get(CONVERSATIONS_ATTRIBUTE) : null;
+        return joined instanceof Set<?> conversations && conversations.contains(conversationId);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor));
+            case SUBSCRIBE -> authorizeSubscribe(accessor);
+            case SEND -> authorizeSend(accessor);
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Principal user = StompHeaderAccessor.getUser(message.getHeaders());
+        if (user instanceof Authentication authentication) {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new BadCredentialsException("Missing token");
+        }
+        String token = header.substring(7);
+        if (tokenBlacklistService.isTokenBlacklisted(token)) {
+            logger.warn("🚫 Blacklisted token attempt on WebSocket connect");
+            throw new BadCredentialsException("Token has been blacklisted");
+        }
+        try {
+            String username = jwtTokenUtil.getUsernameFromToken(token);
+            UserDetails userDetails = userDetailsService.loadPrincipal(username);
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        } catch (Exception e) {
+            logger.warn("❌ WebSocket token validation error: {}", e.getMessage());
+            throw new BadCredentialsException("Invalid token");
+        }
+    }
+
+    private void authorizeSubscribe(StompHeaderAccessor accessor) {
+        Long userId = userId(accessor);
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            throw new AccessDeniedException("Missing destination");
+        }
+        if (destination.startsWith("/user/queue/")) {
+            return;
+        }
+        if (destination.startsWith(MessagingGateway.PRESENCE_TOPIC)) {
+            Long otherUserId = parseId(destination.substring(MessagingGateway.PRESENCE_TOPIC.length()));
+            if (otherUserId == null
+                    || (!otherUserId.equals(userId) && !conversationRepository.sharesConversation(userId, otherUserId))) {
+                throw new AccessDeniedException("You don't share a conversation with this user");
+            }
+            return;
+        }
+        if (destination.startsWith(MessagingGateway.CONVERSATION_TOPIC)) {
+            Long conversationId = parseId(destination.substring(MessagingGateway.CONVERSATION_TOPIC.length()));
+            if (conversationId == null || !conversationRepository.isParticipant(conversationId, userId)) {
+                throw new AccessDeniedException("You are not a participant in this conversation");
+            }
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            if (attributes != null) {
+                @SuppressWarnings("unchecked")
+                Set<Long> joined = (Set<Long>) attributes.computeIfAbsent(CONVERSATIONS_ATTRIBUTE,
+                        key -> ConcurrentHashMap.newKeySet());
+                joined.add(conversationId);
+            }
+            return;
+        }
+        throw new AccessDeniedException("Cannot subscribe to " + destination);
+    }
+
+    private void authorizeSend(StompHeaderAccessor accessor) {
+        userId(accessor);
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(WebSocketConfig.APPLICATION_PREFIX + "/")) {
+            throw new AccessDeniedException("Cannot send to " + destination);
+        }
+    }
+
+    private static Long userId(StompHeaderAccessor accessor) {
+        if (accessor.getUser() instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        throw new AccessDeniedException("Not authenticated");
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.jgy36.PoliticalApp.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * STOMP over WebSocket at /ws for real-time messaging.
+ * Clients SEND to /app/... (see ConversationSocketController) and subscribe to the destinations
+ * MessagingGateway publishes to. By default the broker is in memory, which only reaches sessions
+ * connected to this node; with app.messaging.relay.enabled the broker destinations are relayed
+ * to an external STOMP broker (RabbitMQ, ActiveMQ) shared by every node, user destinations included.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    public static final String ENDPOINT = "/ws";
+    public static final String APPLICATION_PREFIX = "/app";
+
+    private final StompAuthChannelInterceptor authInterceptor;
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${app.cors.allowed-origins:*}")
+    private String[] allowedOrigins;
+
+    @Value("${app.messaging.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+
+    @Value("${app.messaging.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${app.messaging.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.messaging.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.messaging.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.messaging.relay.passcode:guest}")
+    private String relayPasscode;
+
+    public WebSocketConfig(StompAuthChannelInterceptor authInterceptor) {
+        this.authInterceptor = authInterceptor;
+    }
+
+    // The broker's own scheduler, for heartbeats only (@Scheduled jobs use SchedulingConfig's)
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Same origins as the REST API (see SecurityConfig); the token is checked on CONNECT
+        registry.addEndpoint(ENDPOINT).setAllowedOrigins(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.setApplicationDestinationPrefixes(APPLICATION_PREFIX);
+        // Events for one session leave in the order they were published
+        registry.setPreservePublishOrder(true);
+
+        if (relayEnabled) {
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Reach users whose sessions are connected to another node
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authInterceptor);
+    }
+}
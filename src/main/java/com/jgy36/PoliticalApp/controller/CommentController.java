@@ -3,16 +3,14 @@ package com.jgy36.PoliticalApp.controller;
 import com.jgy36.PoliticalApp.dto.CommentDTO;
 import com.jgy36.PoliticalApp.dto.CommentRequest;
 import com.jgy36.PoliticalApp.service.CommentService;
+import com.jgy36.PoliticalApp.utils.ContentTokenizer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/posts") // ✅ Clearer API Structure
@@ -72,13 +70,7 @@ public class CommentController {
     // Add this to CommentController.java
     @GetMapping("/test-mention-regex")
     public ResponseEntity<Map<String, Object>> testMentionRegex(@RequestParam String text) {
-        Pattern pattern = Pattern.compile("@(\\w+(?:-\\w+)*)");
-        Matcher matcher = pattern.matcher(text);
-
-        List<String> mentions = new ArrayList<>();
-        while (matcher.find()) {
-            mentions.add(matcher.group(1));
-        }
+        List<String> mentions = ContentTokenizer.tokenize(text).getMentions();
 
         return ResponseEntity.ok(Map.of(
                 "text", text,
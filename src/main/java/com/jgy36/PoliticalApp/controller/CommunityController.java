@@ -2,6 +2,7 @@ package com.jgy36.PoliticalApp.controller;
 
 import com.jgy36.PoliticalApp.dto.CommunityDTO;
 import com.jgy36.PoliticalApp.dto.CommunityPostRequest;
+import com.jgy36.PoliticalApp.dto.FeedPageDTO;
 import com.jgy36.PoliticalApp.dto.PostDTO;
 import com.jgy36.PoliticalApp.entity.Community;
 import com.jgy36.PoliticalApp.entity.Post;
@@ -9,6 +10,7 @@ import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.repository.CommunityUserPreferenceRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
 import com.jgy36.PoliticalApp.service.CommunityService;
+import com.jgy36.PoliticalApp.service.PostService;
 import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -34,6 +36,9 @@ public class CommunityController {
     @Autowired
     private CommunityUserPreferenceRepository communityUserPreferenceRepository;
 
+    @Autowired
+    private PostService postService;
+
     @Autowired
     public CommunityController(CommunityService communityService) {
         this.communityService = communityService;
@@ -119,12 +124,19 @@ public class CommunityController {
 
     // Get community posts
     @GetMapping("/{slug}/posts")
-    public ResponseEntity<List<PostDTO>> getCommunityPosts(@PathVariable String slug) {
-        List<Post> posts = communityService.getCommunityPosts(slug);
-        List<PostDTO> postDTOs = posts.stream()
-                .map(post -> new PostDTO(post))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(postDTOs);
+    public ResponseEntity<List<PostDTO>> getCommunityPosts(
+            @PathVariable String slug,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        // Throws 404 for unknown communities instead of returning an empty page
+        communityService.getCommunityBySlug(slug);
+
+        FeedPageDTO page = postService.getCommunityFeed(slug, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(FeedPageDTO.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getPosts());
     }
 
     // Create a post in a community
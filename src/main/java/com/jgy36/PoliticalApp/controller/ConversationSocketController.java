@@ -0,0 +1,90 @@
+package com.jgy36.PoliticalApp.controller;
+
+import com.jgy36.PoliticalApp.config.StompAuthChannelInterceptor;
+import com.jgy36.PoliticalApp.dto.MessageAckRequest;
+import com.jgy36.PoliticalApp.dto.MessageRequest;
+import com.jgy36.PoliticalApp.dto.TypingRequest;
+import com.jgy36.PoliticalApp.exception.GlobalExceptionHandler;
+import com.jgy36.PoliticalApp.service.MessageService;
+import com.jgy36.PoliticalApp.service.messaging.MessagingGateway;
+import com.jgy36.PoliticalApp.service.messaging.ReadAckBuffer;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Controller;
+
+import java.util.NoSuchElementException;
+
+/**
+ * STOMP counterpart of MessageController. Clients send to /app/conversations/{id}/...;
+ * acks and typing need a subscription to the conversation's topic first.
+ */
+@Controller
+public class ConversationSocketController {
+
+    private final MessageService messageService;
+    private final MessagingGateway messagingGateway;
+    private final ReadAckBuffer readAckBuffer;
+
+    public ConversationSocketController(MessageService messageService,
+                                        MessagingGateway messagingGateway,
+                                        ReadAckBuffer readAckBuffer) {
+        this.messageService = messageService;
+        this.messagingGateway = messagingGateway;
+        this.readAckBuffer = readAckBuffer;
+    }
+
+    /**
+     * Send a message; it reaches the participants through MessagingGateway
+     */
+    @MessageMapping("/conversations/{conversationId}/send")
+    public void sendMessage(@DestinationVariable Long conversationId, @Payload MessageRequest request) {
+        if (request.getContent() == null || request.getContent().isBlank()) {
+            throw new IllegalArgumentException("Message content is required");
+        }
+        messageService.sendMessage(conversationId, request.getContent(), null);
+    }
+
+    /**
+     * Acknowledge the messages shown so far; they're marked read in the next ack flush
+     */
+    @MessageMapping("/conversations/{conversationId}/ack")
+    public void acknowledge(@DestinationVariable Long conversationId, @Payload MessageAckRequest request,
+                            SimpMessageHeaderAccessor headers) {
+        requireJoined(headers, conversationId);
+        if (request.getMessageId() == null) {
+            throw new IllegalArgumentException("messageId is required");
+        }
+        readAckBuffer.acknowledge(conversationId, SecurityUtils.getCurrentUserId(), request.getMessageId());
+    }
+
+    /**
+     * Relay a typing indicator to the conversation
+     */
+    @MessageMapping("/conversations/{conversationId}/typing")
+    public void typing(@DestinationVariable Long conversationId, @Payload TypingRequest request,
+                       SimpMessageHeaderAccessor headers) {
+        requireJoined(headers, conversationId);
+        messagingGateway.typing(conversationId, SecurityUtils.getCurrentUserId(), request.isTyping());
+    }
+
+    // Errors go back to the session that sent the frame only
+    @MessageExceptionHandler
+    @SendToUser(destinations = MessagingGateway.USER_ERRORS, broadcast = false)
+    public GlobalExceptionHandler.ErrorResponse handleError(RuntimeException ex) {
+        String error = ex instanceof AccessDeniedException ? "Forbidden"
+                : ex instanceof NoSuchElementException ? "Not Found" : "Bad Request";
+        return new GlobalExceptionHandler.ErrorResponse(error, ex.getMessage());
+    }
+
+    private static void requireJoined(SimpMessageHeaderAccessor headers, Long conversationId) {
+        if (!StompAuthChannelInterceptor.hasJoined(headers.getSessionAttributes(), conversationId)) {
+            throw new AccessDeniedException("Subscribe to the conversation first");
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.jgy36.PoliticalApp.controller;
 
 import com.jgy36.PoliticalApp.dto.PostDTO;
+import com.jgy36.PoliticalApp.dto.TrendingHashtagDTO;
 import com.jgy36.PoliticalApp.entity.Hashtag;
 import com.jgy36.PoliticalApp.entity.Post;
 import com.jgy36.PoliticalApp.service.HashtagService;
 import com.jgy36.PoliticalApp.service.PostService;
+import com.jgy36.PoliticalApp.service.trending.TrendingHashtagService;
+import com.jgy36.PoliticalApp.service.trending.TrendingWindow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +27,9 @@ public class HashtagController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private TrendingHashtagService trendingHashtagService;
+
     /**
      * Get all hashtags used in the system
      */
@@ -62,20 +68,23 @@ public class HashtagController {
     }
 
     /**
-     * Get trending hashtags (defaults to top 10)
+     * Get trending hashtags (defaults to top 10 over the last 24h; window is 1h, 24h or 7d)
      */
     @GetMapping("/trending")
-    public ResponseEntity<List<Hashtag>> getTrendingHashtags() {
-        List<Hashtag> trending = hashtagService.getTrendingHashtags();
-        return ResponseEntity.ok(trending);
+    public ResponseEntity<List<TrendingHashtagDTO>> getTrendingHashtags(
+            @RequestParam(defaultValue = "24h") String window) {
+        return getTrendingHashtags(10, window);
     }
 
     /**
      * Get trending hashtags with a limit
      */
     @GetMapping("/trending/{limit}")
-    public ResponseEntity<List<Hashtag>> getTrendingHashtags(@PathVariable int limit) {
-        List<Hashtag> trending = hashtagService.getTrendingHashtags(limit);
+    public ResponseEntity<List<TrendingHashtagDTO>> getTrendingHashtags(
+            @PathVariable int limit,
+            @RequestParam(defaultValue = "24h") String window) {
+        List<TrendingHashtagDTO> trending =
+                trendingHashtagService.getTrending(TrendingWindow.fromLabel(window), limit);
         return ResponseEntity.ok(trending);
     }
 
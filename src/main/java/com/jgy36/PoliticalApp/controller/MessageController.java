@@ -9,6 +9,7 @@ import com.jgy36.PoliticalApp.entity.Message;
 import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.repository.UserRepository;
 import com.jgy36.PoliticalApp.service.MessageService;
+import com.jgy36.PoliticalApp.service.messaging.PresenceRegistry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -26,10 +27,13 @@ public class MessageController {
 
     private final MessageService messageService;
     private final UserRepository userRepository;
+    private final PresenceRegistry presenceRegistry;
 
-    public MessageController(MessageService messageService, UserRepository userRepository) {
+    public MessageController(MessageService messageService, UserRepository userRepository,
+                             PresenceRegistry presenceRegistry) {
         this.messageService = messageService;
         this.userRepository = userRepository;
+        this.presenceRegistry = presenceRegistry;
     }
 
     /**
@@ -78,8 +82,8 @@ public class MessageController {
         // Set unread count and updated timestamp
         dto.setUnreadCount((Integer) map.getOrDefault("unreadCount", 0));
 
-        // Default isOnline to false if not present
-        dto.setOnline(false);
+        // Online if the other user has a WebSocket session open
+        dto.setOnline(dto.getOtherUser() != null && presenceRegistry.isOnline(dto.getOtherUser().getId()));
 
         return dto;
     }
@@ -112,7 +116,7 @@ public class MessageController {
         // Get and convert messages
         List<Message> messages = messageService.getMessagesForConversation(conversation);
         List<MessageResponse> response = messages.stream()
-                .map(this::convertToMessageResponse)
+                .map(MessageResponse::from)
                 .collect(Collectors.toList());
 
         // Mark conversation as read
@@ -121,30 +125,6 @@ public class MessageController {
         return ResponseEntity.ok(response);
     }
 
-    // Helper method to convert Message to MessageResponse
-    private MessageResponse convertToMessageResponse(Message message) {
-        MessageResponse response = new MessageResponse();
-        response.setId(message.getId());
-        response.setContent(message.getContent());
-        response.setCreatedAt(message.getSentAt());
-        response.setRead(message.isRead());
-
-        // Add sender information
-        if (message.getSender() != null) {
-            UserSummaryDTO sender = new UserSummaryDTO();
-            sender.setId(message.getSender().getId());
-            sender.setUsername(message.getSender().getUsername());
-            sender.setDisplayName(message.getSender().getDisplayName());
-            sender.setProfileImageUrl(message.getSender().getProfileImageUrl());
-            response.setSender(sender);
-        }
-
-        // Add conversation ID
-        response.setConversationId(message.getConversation().getId());
-
-        return response;
-    }
-
     /**
      * Send a message to an existing conversation
      */
@@ -155,7 +135,7 @@ public class MessageController {
             @RequestBody MessageRequest request) {
 
         Message message = messageService.sendMessage(conversationId, request.getContent(), null);
-        MessageResponse response = convertToMessageResponse(message);
+        MessageResponse response = MessageResponse.from(message);
         return ResponseEntity.ok(response);
     }
 
@@ -182,7 +162,7 @@ public class MessageController {
         Conversation conversation = messageService.createConversation(currentUser, receiver);
         Message message = messageService.sendMessage(conversation.getId(), request.getContent(), null);
 
-        MessageResponse response = convertToMessageResponse(message);
+        MessageResponse response = MessageResponse.from(message);
         return ResponseEntity.ok(response);
     }
 
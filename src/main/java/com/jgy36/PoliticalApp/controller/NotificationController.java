@@ -1,5 +1,8 @@
 package com.jgy36.PoliticalApp.controller;
 
+import com.jgy36.PoliticalApp.dto.FeedPageDTO;
+import com.jgy36.PoliticalApp.dto.NotificationDTO;
+import com.jgy36.PoliticalApp.dto.NotificationPageDTO;
 import com.jgy36.PoliticalApp.entity.Notification;
 import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.entity.UserNotificationPreferences;
@@ -7,11 +10,13 @@ import com.jgy36.PoliticalApp.repository.NotificationRepository;
 import com.jgy36.PoliticalApp.repository.UserNotificationPreferencesRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
 import com.jgy36.PoliticalApp.service.NotificationService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -33,11 +38,41 @@ public class NotificationController {
         this.preferencesRepository = preferencesRepository;
     }
 
-    // ✅ Get Logged-in User's Notifications
+    // ✅ Get Logged-in User's Notifications - one keyset page at a time, next cursor in the X-Next-Cursor header
     @GetMapping
     @PreAuthorize("hasAuthority('ROLE_USER') or hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<List<Notification>> getUserNotifications() {
-        return ResponseEntity.ok(notificationService.getUserNotifications());
+    public ResponseEntity<List<NotificationDTO>> getUserNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return pageResponse(notificationService.getUserNotifications(cursor, limit));
+    }
+
+    // ✅ Notifications newer than the X-Since-Cursor from an earlier response, oldest first
+    @GetMapping("/since")
+    @PreAuthorize("hasAuthority('ROLE_USER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<List<NotificationDTO>> getNotificationsSince(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return pageResponse(notificationService.getNotificationsSince(cursor, limit));
+    }
+
+    // Inbox endpoints return a plain list like the feeds; cursors travel in headers
+    private ResponseEntity<List<NotificationDTO>> pageResponse(NotificationPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(FeedPageDTO.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        if (page.getSinceCursor() != null) {
+            response.header(NotificationPageDTO.SINCE_CURSOR_HEADER, page.getSinceCursor());
+        }
+        return response.body(page.getNotifications());
+    }
+
+    // ✅ Server-Sent Events stream of new notifications and unread count changes - replaces polling
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_USER') or hasAuthority('ROLE_ADMIN')")
+    public SseEmitter streamNotifications() {
+        return notificationService.subscribe();
     }
 
     // ✅ Mark Notification as Read
@@ -60,12 +95,7 @@ public class NotificationController {
     @GetMapping("/unread-count")
     @PreAuthorize("hasAuthority('ROLE_USER') or hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<Map<String, Integer>> getUnreadCount() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        int count = notificationRepository.findByRecipientAndReadFalse(user).size();
-        return ResponseEntity.ok(Map.of("count", count));
+        return ResponseEntity.ok(Map.of("count", notificationService.getUnreadCount()));
     }
 
     // Add to NotificationController.java
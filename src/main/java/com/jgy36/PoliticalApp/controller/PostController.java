@@ -1,6 +1,7 @@
 package com.jgy36.PoliticalApp.controller;
 
 import com.jgy36.PoliticalApp.dto.CommunityPostRequest;
+import com.jgy36.PoliticalApp.dto.FeedPageDTO;
 import com.jgy36.PoliticalApp.dto.PostDTO;
 import com.jgy36.PoliticalApp.dto.PostRequest;
 import com.jgy36.PoliticalApp.entity.MediaAttachment;
@@ -8,9 +9,11 @@ import com.jgy36.PoliticalApp.entity.Post;
 import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.exception.ResourceNotFoundException;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.PostHydrator;
 import com.jgy36.PoliticalApp.service.PostService;
 import com.jgy36.PoliticalApp.service.PrivacySettingsService;
 import com.jgy36.PoliticalApp.service.UserService;
+import com.jgy36.PoliticalApp.utils.ContentTokenizer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,9 +28,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "http://localhost:3000") // FIX: Use specific origin
 @RestController
@@ -38,32 +38,33 @@ public class PostController {
     private final UserRepository userRepository;// ✅ Ensure this is declared
     private final UserService userService; // ✅ Ensure this is declared
     private final PrivacySettingsService privacySettingsService; // ✅ Ensure this is declared
+    private final PostHydrator postHydrator;
 
 
-    public PostController(PostService postService, UserRepository userRepository, UserService userService, PrivacySettingsService privacySettingsService) {
+    public PostController(PostService postService, UserRepository userRepository, UserService userService, PrivacySettingsService privacySettingsService, PostHydrator postHydrator) {
         this.postService = postService;
         this.userRepository = userRepository;
         this.userService = userService;
         this.privacySettingsService = privacySettingsService;
+        this.postHydrator = postHydrator;
     }
 
-    // ✅ Get all posts
+    // ✅ Get all posts - one keyset page at a time, next cursor in the X-Next-Cursor header
     @GetMapping("/for-you")
-    public ResponseEntity<List<PostDTO>> getAllPosts() {
-        return ResponseEntity.ok(postService.getAllPosts());
+    public ResponseEntity<List<PostDTO>> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return feedResponse(postService.getForYouFeed(cursor, limit));
     }
 
     // ✅ Get posts from users that the current user follows
     @GetMapping("/following")
     @PreAuthorize("isAuthenticated()") // ✅ Requires authentication
-    public ResponseEntity<List<PostDTO>> getPostsFromFollowing() {
+    public ResponseEntity<List<PostDTO>> getPostsFromFollowing(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-        // 🔹 DEBUG: Print Authentication Details
-        System.out.println("🔍 AUTH: " + auth);
-        System.out.println("🔍 Authenticated? " + auth.isAuthenticated());
-        System.out.println("🔍 Principal: " + auth.getPrincipal());
-
         if (auth == null || !auth.isAuthenticated()) {
             System.out.println("🚨 No valid authentication found! Returning 401.");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -77,19 +78,16 @@ public class PostController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        User user = userOpt.get();
-        List<Long> followingIds = user.getFollowing().stream()
-                .map(User::getId)
-                .collect(Collectors.toList());
+        return feedResponse(postService.getFollowingFeed(userOpt.get().getId(), cursor, limit));
+    }
 
-        if (followingIds.isEmpty()) {
-            System.out.println("✅ User follows no one. Returning empty array.");
-            return ResponseEntity.ok(List.of());
+    // Feed endpoints keep returning a plain list so existing clients still work
+    private ResponseEntity<List<PostDTO>> feedResponse(FeedPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(FeedPageDTO.NEXT_CURSOR_HEADER, page.getNextCursor());
         }
-
-        List<PostDTO> posts = postService.getPostsFromFollowing(followingIds);
-        System.out.println("✅ Returning " + posts.size() + " posts from followed users.");
-        return ResponseEntity.ok(posts);
+        return response.body(page.getPosts());
     }
 
     // ✅ Create a new post
@@ -149,39 +147,26 @@ public class PostController {
     @GetMapping("/{postId}/reposts")
     public ResponseEntity<List<PostDTO>> getPostReposts(@PathVariable Long postId) {
         List<Post> reposts = postService.getRepostsOfPost(postId);
-        List<PostDTO> repostDTOs = reposts.stream()
-                .map(post -> new PostDTO(post))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(repostDTOs);
+        return ResponseEntity.ok(postHydrator.hydrate(reposts));
     }
 
     @GetMapping("/extract-hashtags")
     public ResponseEntity<List<String>> extractHashtags(@RequestParam String text) {
-        // Use your extraction logic
-        Pattern pattern = Pattern.compile("#(\\w+)");
-        Matcher matcher = pattern.matcher(text);
-
-        List<String> hashtags = new ArrayList<>();
-        while (matcher.find()) {
-            hashtags.add(matcher.group());
-        }
-
-        return ResponseEntity.ok(hashtags);
+        // Same extraction the post pipeline uses
+        return ResponseEntity.ok(ContentTokenizer.tokenize(text).getHashtags());
     }
 
     @GetMapping
     public ResponseEntity<List<PostDTO>> getPosts(
-            @RequestParam(required = false) String communitySlug) {
+            @RequestParam(required = false) String communitySlug,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         if (communitySlug != null) {
             // Get posts for specific community using the slug
-            List<Post> posts = postService.getPostsByCommunitySlug(communitySlug);
-            List<PostDTO> postDTOs = posts.stream()
-                    .map(post -> new PostDTO(post))
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(postDTOs);
+            return feedResponse(postService.getCommunityFeed(communitySlug, cursor, limit));
         } else {
             // Get all posts if no communitySlug is provided
-            return getAllPosts();
+            return getAllPosts(cursor, limit);
         }
     }
 
@@ -201,7 +186,7 @@ public class PostController {
     @GetMapping("/{postId}")
     public ResponseEntity<PostDTO> getPostById(@PathVariable Long postId) {
         Post post = postService.getPostById(postId);
-        PostDTO dto = new PostDTO(post);
+        PostDTO dto = postHydrator.hydrate(List.of(post)).get(0);
         return ResponseEntity.ok(dto);
     }
 
@@ -275,10 +260,7 @@ public class PostController {
     @GetMapping("/saved")
     public ResponseEntity<List<PostDTO>> getSavedPosts(Authentication auth) {
         List<Post> posts = postService.getSavedPosts(auth.getName());
-        List<PostDTO> postDTOs = posts.stream()
-                .map(post -> new PostDTO(post))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(postDTOs);
+        return ResponseEntity.ok(postHydrator.hydrate(posts));
     }
 
     @GetMapping("/{postId}/saved-status")
@@ -327,7 +309,9 @@ public class PostController {
     // This would be added to PostController.java
     @GetMapping("/communities")
     @PreAuthorize("isAuthenticated()") // Requires authentication
-    public ResponseEntity<List<PostDTO>> getPostsFromCommunities() {
+    public ResponseEntity<List<PostDTO>> getPostsFromCommunities(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
         if (auth == null || !auth.isAuthenticated()) {
@@ -344,9 +328,7 @@ public class PostController {
         }
 
         User user = userOpt.get();
-        List<PostDTO> posts = postService.getPostsFromUserCommunities(user);
-        System.out.println("✅ Returning " + posts.size() + " posts from user communities.");
-        return ResponseEntity.ok(posts);
+        return feedResponse(postService.getPostsFromUserCommunities(user, cursor, limit));
     }
 
     // Add this to PoliticalApp/src/main/java/com/jgy36/PoliticalApp/controller/PostController.java
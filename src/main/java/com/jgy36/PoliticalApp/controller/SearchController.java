@@ -2,6 +2,7 @@ package com.jgy36.PoliticalApp.controller;
 
 import com.jgy36.PoliticalApp.dto.SearchResultDTO;
 import com.jgy36.PoliticalApp.service.SearchService;
+import com.jgy36.PoliticalApp.service.autocomplete.AutocompleteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,16 +19,31 @@ public class SearchController {
     private static final Logger logger = Logger.getLogger(SearchController.class.getName());
 
     private final SearchService searchService;
+    private final AutocompleteService autocompleteService;
 
     @Autowired
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, AutocompleteService autocompleteService) {
         this.searchService = searchService;
+        this.autocompleteService = autocompleteService;
+    }
+
+    /**
+     * Typeahead suggestions for a prefix, most popular first (type: user, community or hashtag)
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<SearchResultDTO>> autocomplete(
+            @RequestParam String query,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteService.suggest(query, type, limit));
     }
 
     @GetMapping
     public ResponseEntity<List<SearchResultDTO>> searchAll(
             @RequestParam String query,
-            @RequestParam(required = false) String type) {
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
         logger.info("Search request received: query=" + query + ", type=" + type);
 
@@ -41,10 +57,10 @@ public class SearchController {
 
             if (type != null && !type.isEmpty()) {
                 // Search for specific type
-                results = searchService.searchByType(query, type);
+                results = searchService.searchByType(query, type, page, size);
             } else {
                 // Search across all types
-                results = searchService.searchAll(query);
+                results = searchService.searchAll(query, page, size);
             }
 
             return ResponseEntity.ok(results);
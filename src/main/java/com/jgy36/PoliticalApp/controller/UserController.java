@@ -38,16 +38,18 @@ public class UserController {
     private final FollowRequestService followRequestService;
     private final UserService userService;
     private final PrivacySettingsService privacySettingsService;
+    private final TimelineService timelineService;
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    public UserController(UserRepository userRepository, FollowService followService, PostService postService, FollowRequestService followRequestService, UserService userService, PrivacySettingsService privacySettingsService) {
+    public UserController(UserRepository userRepository, FollowService followService, PostService postService, FollowRequestService followRequestService, UserService userService, PrivacySettingsService privacySettingsService, TimelineService timelineService) {
         this.userRepository = userRepository;
         this.followService = followService;
         this.postService = postService;
         this.followRequestService = followRequestService;
         this.userService = userService;
         this.privacySettingsService = privacySettingsService;
+        this.timelineService = timelineService;
     }
 
     /**
@@ -264,6 +266,7 @@ public class UserController {
         // Remove target user from current user's following list
         currentUser.unfollow(targetUser);
         userRepository.save(currentUser);
+        timelineService.onFollowGraphChanged(currentUser.getId());
 
         // Get updated stats
         int followersCount = followService.getFollowerCount(targetUser.getId());
@@ -0,0 +1,45 @@
+package com.jgy36.PoliticalApp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An event pushed to WebSocket clients: a new message, a read receipt, someone typing, or a
+ * user coming online or going offline. Only the fields for the event's type are set.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConversationEventDTO {
+    public static final String MESSAGE = "message";
+    public static final String READ = "read";
+    public static final String TYPING = "typing";
+    public static final String PRESENCE = "presence";
+
+    private String type;
+    private Long conversationId;
+    private Long userId;
+    private MessageResponse message;
+    // Read receipts: everything up to this message; null for the whole conversation
+    private Long upToMessageId;
+    private Boolean typing;
+    private Boolean online;
+
+    public static ConversationEventDTO message(MessageResponse message) {
+        Long senderId = message.getSender() != null ? message.getSender().getId() : null;
+        return new ConversationEventDTO(MESSAGE, message.getConversationId(), senderId, message, null, null, null);
+    }
+
+    public static ConversationEventDTO read(Long conversationId, Long userId, Long upToMessageId) {
+        return new ConversationEventDTO(READ, conversationId, userId, null, upToMessageId, null, null);
+    }
+
+    public static ConversationEventDTO typing(Long conversationId, Long userId, boolean typing) {
+        return new ConversationEventDTO(TYPING, conversationId, userId, null, null, typing, null);
+    }
+
+    public static ConversationEventDTO presence(Long userId, boolean online) {
+        return new ConversationEventDTO(PRESENCE, null, userId, null, null, null, online);
+    }
+}
@@ -0,0 +1,17 @@
+package com.jgy36.PoliticalApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One page of a keyset-paginated feed; nextCursor is null on the last page
+@Getter
+@AllArgsConstructor
+public class FeedPageDTO {
+    // Response header carrying nextCursor on the list-returning feed endpoints
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<PostDTO> posts;
+    private String nextCursor;
+}
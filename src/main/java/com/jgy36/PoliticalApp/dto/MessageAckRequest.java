@@ -0,0 +1,13 @@
+package com.jgy36.PoliticalApp.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// DTO for a client acknowledging messages it has shown, up to and including messageId
+@Getter
+@Setter
+@NoArgsConstructor
+public class MessageAckRequest {
+    private Long messageId;
+}
@@ -1,5 +1,6 @@
 package com.jgy36.PoliticalApp.dto;
 
+import com.jgy36.PoliticalApp.entity.Message;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -18,4 +19,27 @@ public class MessageResponse {
     private Long conversationId;
     private LocalDateTime createdAt;
     private boolean read;
+
+    public static MessageResponse from(Message message) {
+        MessageResponse response = new MessageResponse();
+        response.setId(message.getId());
+        response.setContent(message.getContent());
+        response.setCreatedAt(message.getSentAt());
+        response.setRead(message.isRead());
+
+        // Add sender information
+        if (message.getSender() != null) {
+            UserSummaryDTO sender = new UserSummaryDTO();
+            sender.setId(message.getSender().getId());
+            sender.setUsername(message.getSender().getUsername());
+            sender.setDisplayName(message.getSender().getDisplayName());
+            sender.setProfileImageUrl(message.getSender().getProfileImageUrl());
+            response.setSender(sender);
+        }
+
+        // Add conversation ID
+        response.setConversationId(message.getConversation().getId());
+
+        return response;
+    }
 }
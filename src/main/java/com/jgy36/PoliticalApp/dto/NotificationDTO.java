@@ -0,0 +1,54 @@
+package com.jgy36.PoliticalApp.dto;
+
+import com.jgy36.PoliticalApp.entity.ArchivedNotification;
+import com.jgy36.PoliticalApp.entity.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification as sent to clients - the entity's fields without the recipient
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationDTO {
+    private Long id;
+    private String message;
+    private boolean read;
+    private LocalDateTime createdAt;
+    private String notificationType;
+    private Long referenceId;
+    private Long secondaryReferenceId;
+    private String communityId;
+    private int actorCount;
+    private String recentActors;
+
+    public static NotificationDTO from(Notification notification) {
+        return new NotificationDTO(
+                notification.getId(),
+                notification.getMessage(),
+                notification.isRead(),
+                notification.getCreatedAt(),
+                notification.getNotificationType(),
+                notification.getReferenceId(),
+                notification.getSecondaryReferenceId(),
+                notification.getCommunityId(),
+                notification.getActorCount(),
+                notification.getRecentActors());
+    }
+
+    public static NotificationDTO from(ArchivedNotification archived) {
+        return new NotificationDTO(
+                archived.getId(),
+                archived.getMessage(),
+                true,
+                archived.getCreatedAt(),
+                archived.getNotificationType(),
+                archived.getReferenceId(),
+                archived.getSecondaryReferenceId(),
+                archived.getCommunityId(),
+                archived.getActorCount(),
+                null);
+    }
+}
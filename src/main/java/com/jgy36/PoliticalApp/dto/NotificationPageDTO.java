@@ -0,0 +1,19 @@
+package com.jgy36.PoliticalApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One page of the notification inbox; nextCursor is null on the last page, sinceCursor is where
+// to fetch newer notifications from (set on the first page and on every "since" fetch)
+@Getter
+@AllArgsConstructor
+public class NotificationPageDTO {
+    // Response header carrying sinceCursor; nextCursor goes in FeedPageDTO.NEXT_CURSOR_HEADER
+    public static final String SINCE_CURSOR_HEADER = "X-Since-Cursor";
+
+    private List<NotificationDTO> notifications;
+    private String nextCursor;
+    private String sinceCursor;
+}
@@ -2,6 +2,7 @@ package com.jgy36.PoliticalApp.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.jgy36.PoliticalApp.entity.Hashtag;
+import com.jgy36.PoliticalApp.entity.MediaAttachment;
 import com.jgy36.PoliticalApp.entity.Post;
 import com.jgy36.PoliticalApp.entity.User;
 import lombok.Getter;
@@ -48,37 +49,12 @@ public class PostDTO {
     @Getter
     private String originalPostContent;
 
-    public PostDTO(Post post) {
-        this.id = post.getId();
-        this.content = post.getContent();
-
-        // Safely handle author relationship
-        if (post.getAuthor() != null) {
-            this.author = post.getAuthor().getUsername();
-        } else {
-            this.author = "unknown";
-        }
-
-        this.createdAt = post.getCreatedAt();
-        this.likes = post.getLikedUsers() != null ? post.getLikedUsers().size() : 0;
-        this.commentsCount = post.getComments() != null ? post.getComments().size() : 0;
-        this.updatedAt = post.getUpdatedAt();
-
-        // Handle repost information safely
-        this.isRepost = post.isRepost();
-        this.repost = post.isRepost(); // Set both properties for consistency
-        this.originalPostId = post.getOriginalPostId();
-        this.repostCount = post.getRepostCount();
-
-        // Carefully handle original post data to avoid deep nesting
-        if (post.isRepost() && post.getOriginalPost() != null) {
-            Post originalPost = post.getOriginalPost();
-            this.originalAuthor = originalPost.getAuthor() != null ?
-                    originalPost.getAuthor().getUsername() : "Unknown";
-            this.originalPostContent = originalPost.getContent();
+    // Used by fromColumns(); PostHydrator fills in the collection-derived fields
+    private PostDTO() {
+    }
 
-            // Don't add more nested relationships from the original post
-        }
+    public PostDTO(Post post) {
+        copyColumns(post);
 
         // Handle hashtags safely
         if (post.getHashtags() != null && !post.getHashtags().isEmpty()) {
@@ -98,18 +74,7 @@ public class PostDTO {
         // Handle media attachments safely
         if (post.getMediaAttachments() != null && !post.getMediaAttachments().isEmpty()) {
             this.media = post.getMediaAttachments().stream()
-                    .map(attachment -> {
-                        MediaDTO mediaDTO = new MediaDTO();
-                        mediaDTO.setId(attachment.getId());
-                        mediaDTO.setMediaType(attachment.getMediaType());
-                        mediaDTO.setUrl(attachment.getUrl());
-                        mediaDTO.setThumbnailUrl(attachment.getThumbnailUrl());
-                        mediaDTO.setAltText(attachment.getAltText());
-                        mediaDTO.setWidth(attachment.getWidth());
-                        mediaDTO.setHeight(attachment.getHeight());
-                        mediaDTO.setDuration(attachment.getDuration());
-                        return mediaDTO;
-                    })
+                    .map(MediaDTO::from)
                     .collect(Collectors.toList());
         }
 
@@ -142,6 +107,49 @@ public class PostDTO {
         }
     }
 
+    /**
+     * Build a DTO from the post's own columns plus its author and original post only.
+     * Nothing here touches a lazy collection, so those associations should already be fetched.
+     */
+    public static PostDTO fromColumns(Post post) {
+        PostDTO dto = new PostDTO();
+        dto.copyColumns(post);
+        return dto;
+    }
+
+    private void copyColumns(Post post) {
+        this.id = post.getId();
+        this.content = post.getContent();
+
+        // Safely handle author relationship
+        if (post.getAuthor() != null) {
+            this.author = post.getAuthor().getUsername();
+        } else {
+            this.author = "unknown";
+        }
+
+        this.createdAt = post.getCreatedAt();
+        this.updatedAt = post.getUpdatedAt();
+
+        // Handle repost information safely
+        this.isRepost = post.isRepost();
+        this.repost = post.isRepost(); // Set both properties for consistency
+        this.originalPostId = post.getOriginalPostId();
+        this.repostCount = post.getRepostCount();
+        this.likes = post.getLikeCount();
+        this.commentsCount = post.getCommentCount();
+
+        // Carefully handle original post data to avoid deep nesting
+        if (post.isRepost() && post.getOriginalPost() != null) {
+            Post originalPost = post.getOriginalPost();
+            this.originalAuthor = originalPost.getAuthor() != null ?
+                    originalPost.getAuthor().getUsername() : "Unknown";
+            this.originalPostContent = originalPost.getContent();
+
+            // Don't add more nested relationships from the original post
+        }
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -163,10 +171,28 @@ public class PostDTO {
         return likes;
     }
 
+    public void setLikes(int likes) {
+        this.likes = likes;
+    }
+
     public List<String> getHashtags() {
         return hashtags;
     }
 
+    public void setHashtags(List<String> hashtags) {
+        this.hashtags = hashtags;
+    }
+
+    public void setMedia(List<MediaDTO> media) {
+        this.media = media;
+    }
+
+    public void setCommunity(String communityId, String communityName, String communityColor) {
+        this.communityId = communityId;
+        this.communityName = communityName;
+        this.communityColor = communityColor;
+    }
+
     public String getCommunityId() {
         return communityId;
     }
@@ -179,6 +205,10 @@ public class PostDTO {
         return commentsCount;
     }
 
+    public void setCommentsCount(int commentsCount) {
+        this.commentsCount = commentsCount;
+    }
+
     public boolean getIsLiked() {
         return isLiked;
     }
@@ -225,6 +255,19 @@ public class PostDTO {
         private Integer height;
         private Integer duration;
 
+        public static MediaDTO from(MediaAttachment attachment) {
+            MediaDTO mediaDTO = new MediaDTO();
+            mediaDTO.setId(attachment.getId());
+            mediaDTO.setMediaType(attachment.getMediaType());
+            mediaDTO.setUrl(attachment.getUrl());
+            mediaDTO.setThumbnailUrl(attachment.getThumbnailUrl());
+            mediaDTO.setAltText(attachment.getAltText());
+            mediaDTO.setWidth(attachment.getWidth());
+            mediaDTO.setHeight(attachment.getHeight());
+            mediaDTO.setDuration(attachment.getDuration());
+            return mediaDTO;
+        }
+
         // Getters and setters
         public Long getId() {
             return id;
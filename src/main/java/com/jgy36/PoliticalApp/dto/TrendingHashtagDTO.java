@@ -0,0 +1,15 @@
+package com.jgy36.PoliticalApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A trending hashtag. count is the decayed number of recent uses, rounded; score is the exact value
+ */
+@Getter
+@AllArgsConstructor
+public class TrendingHashtagDTO {
+    private String tag;
+    private long count;
+    private double score;
+}
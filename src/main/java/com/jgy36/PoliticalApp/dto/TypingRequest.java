@@ -0,0 +1,13 @@
+package com.jgy36.PoliticalApp.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// DTO for a typing indicator; never stored
+@Getter
+@Setter
+@NoArgsConstructor
+public class TypingRequest {
+    private boolean typing;
+}
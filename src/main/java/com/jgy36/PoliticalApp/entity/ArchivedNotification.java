@@ -0,0 +1,47 @@
+package com.jgy36.PoliticalApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A read notification moved out of the notifications table by NotificationArchivalTask.
+ * Keeps the original id and only what the inbox still shows; archived notifications are always read.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "notification_archive", indexes = {
+        @Index(name = "idx_notification_archive_recipient_created_at", columnList = "user_id, created_at, id")
+})
+public class ArchivedNotification {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long recipientId;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "notification_type")
+    private String notificationType;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "secondary_reference_id")
+    private Long secondaryReferenceId;
+
+    @Column(name = "community_id")
+    private String communityId;
+
+    @Column(name = "actor_count", nullable = false)
+    private int actorCount = 1;
+}
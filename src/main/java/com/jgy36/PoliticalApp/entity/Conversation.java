@@ -63,11 +63,4 @@ public class Conversation {
         }
         return messages.get(messages.size() - 1);
     }
-
-    // Get unread message count for a specific user
-    public int getUnreadCount(User user) {
-        return (int) messages.stream()
-                .filter(m -> !m.getSender().equals(user) && !m.isRead())
-                .count();
-    }
 }
@@ -0,0 +1,31 @@
+package com.jgy36.PoliticalApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Messages in a conversation that one participant hasn't read, kept up to date by UnreadCounters
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "conversation_unread_counts",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"conversation_id", "user_id"}))
+public class ConversationUnreadCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "conversation_id", nullable = false)
+    private Long conversationId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int unread;
+}
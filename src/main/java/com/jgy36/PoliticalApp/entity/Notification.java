@@ -1,15 +1,20 @@
 package com.jgy36.PoliticalApp.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Getter
 @Setter
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_group_key", columnList = "group_key"),
+        @Index(name = "idx_notifications_recipient_created_at", columnList = "user_id, created_at, id")
+})
 public class Notification {
 
     @Id
@@ -40,4 +45,17 @@ public class Notification {
 
     @Column(name = "community_id")
     private String communityId; // For community-related notifications
+
+    // Likes, reposts and follows on the same topic share one row - see NotificationGrouping
+    @JsonIgnore
+    @Column(name = "group_key")
+    private String groupKey;
+
+    @ColumnDefault("1")
+    @Column(name = "actor_count", nullable = false)
+    private int actorCount = 1;
+
+    // Usernames of the latest actors, newest first, comma-separated
+    @Column(name = "recent_actors", length = 1024)
+    private String recentActors;
 }
@@ -7,7 +7,9 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.Cascade;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -18,7 +20,12 @@ import java.util.Set;
 @Setter
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @NoArgsConstructor
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        // Keyset feed ordering: (created_at, id) descending
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_author_created_at", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_posts_community_created_at", columnList = "community_id, created_at, id")
+})
 public class Post {
 
     // Add to existing Post.java
@@ -84,6 +91,16 @@ public class Post {
     private Long originalPostId;
     @Column(nullable = false)
     private int repostCount = 0;
+
+    // Denormalized counters, kept in step with atomic UPDATEs (see PostRepository)
+    // and repaired by PostCounterReconciliationTask if they ever drift
+    @Column(name = "like_count", nullable = false)
+    @ColumnDefault("0")
+    private int likeCount = 0;
+
+    @Column(name = "comment_count", nullable = false)
+    @ColumnDefault("0")
+    private int commentCount = 0;
     // Add this relationship to get the original post (if this is a repost)
     // For the original post relationship
     @ManyToOne(fetch = FetchType.LAZY)
@@ -112,17 +129,16 @@ public class Post {
         this.mediaAttachments = mediaAttachments;
     }
 
-    public int getLikeCount() {
-        return likes.size();
-    }
-
     /**
      * Adds a hashtag to this post
      */
     public void addHashtag(Hashtag hashtag) {
         this.hashtags.add(hashtag);
-        // Only add this post to hashtag's posts if it's not already there
-        if (!hashtag.getPosts().contains(this)) {
+        // Only add this post to hashtag's posts if it's not already there.
+        // Skip it when that side isn't loaded - it's the inverse side, and loading it
+        // would pull in every post that uses the tag
+        if (Hibernate.isInitialized(hashtag) && Hibernate.isInitialized(hashtag.getPosts())
+                && !hashtag.getPosts().contains(this)) {
             hashtag.getPosts().add(this);
         }
     }
@@ -132,8 +148,9 @@ public class Post {
      */
     public void removeHashtag(Hashtag hashtag) {
         this.hashtags.remove(hashtag);
-        // Only remove this post from hashtag if it contains it
-        if (hashtag.getPosts().contains(this)) {
+        // Only remove this post from hashtag if it contains it (and that side is loaded)
+        if (Hibernate.isInitialized(hashtag) && Hibernate.isInitialized(hashtag.getPosts())
+                && hashtag.getPosts().contains(this)) {
             hashtag.getPosts().remove(this);
         }
     }
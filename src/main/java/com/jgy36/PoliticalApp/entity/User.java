@@ -2,6 +2,9 @@ package com.jgy36.PoliticalApp.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.jgy36.PoliticalApp.service.autocomplete.UserAutocompleteListener;
+import com.jgy36.PoliticalApp.service.cache.UserQueryCacheListener;
+import com.jgy36.PoliticalApp.service.principal.UserPrincipalCacheListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,6 +16,7 @@ import java.util.*;
 @Getter
 @Setter
 @Table(name = "users")
+@EntityListeners({UserAutocompleteListener.class, UserQueryCacheListener.class, UserPrincipalCacheListener.class})
 public class User {
 
     @Id
@@ -0,0 +1,29 @@
+package com.jgy36.PoliticalApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * A user's badge counts, kept up to date by UnreadCounters.
+ * Keyed by plain id rather than a foreign key, so deleting the user isn't blocked by it.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "user_unread_counts")
+public class UserUnreadCounts {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int notifications;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int messages;
+}
@@ -0,0 +1,35 @@
+package com.jgy36.PoliticalApp.repository;
+
+import com.jgy36.PoliticalApp.entity.ArchivedNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedNotificationRepository extends JpaRepository<ArchivedNotification, Long> {
+
+    // One keyset page of a user's archived notifications, newest first
+    @Query("SELECT a FROM ArchivedNotification a WHERE a.recipientId = :recipientId " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArchivedNotification> findPage(@Param("recipientId") Long recipientId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    // Copy notifications into the archive; the caller deletes them from the hot table in the same transaction
+    @Modifying
+    @Query("INSERT INTO ArchivedNotification (id, recipientId, message, createdAt, notificationType, " +
+            "referenceId, secondaryReferenceId, communityId, actorCount) " +
+            "SELECT n.id, n.recipient.id, n.message, n.createdAt, n.notificationType, " +
+            "n.referenceId, n.secondaryReferenceId, n.communityId, n.actorCount " +
+            "FROM Notification n WHERE n.id IN :ids")
+    int copyFromNotifications(@Param("ids") Collection<Long> ids);
+}
@@ -3,6 +3,8 @@ package com.jgy36.PoliticalApp.repository;
 import com.jgy36.PoliticalApp.entity.Comment;
 import com.jgy36.PoliticalApp.entity.Post;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +16,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByPostId(Long postId);
 
-    
+    // Everyone who has commented on a post, without loading the comments
+    @Query("SELECT DISTINCT c.user.id FROM Comment c WHERE c.post.id = :postId")
+    List<Long> findCommenterIdsByPostId(@Param("postId") Long postId);
 }
@@ -2,11 +2,13 @@ package com.jgy36.PoliticalApp.repository;
 
 import com.jgy36.PoliticalApp.entity.Community;
 import com.jgy36.PoliticalApp.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +31,10 @@ public interface CommunityRepository extends JpaRepository<Community, Long> {
     @Query("SELECT c FROM Community c JOIN c.members m WHERE m = :user ORDER BY c.name ASC")
     List<Community> findCommunitiesByMember(@Param("user") User user);
 
+    // Ids of the communities a user is a member of
+    @Query("SELECT c.id FROM Community c JOIN c.members m WHERE m.id = :userId")
+    List<Long> findCommunityIdsByMemberId(@Param("userId") Long userId);
+
     // Find trending communities (those with most recent posts)
     @Query("SELECT c FROM Community c JOIN c.posts p GROUP BY c ORDER BY MAX(p.createdAt) DESC")
     List<Community> findTrendingCommunities();
@@ -37,6 +43,10 @@ public interface CommunityRepository extends JpaRepository<Community, Long> {
     @Query("SELECT c FROM Community c JOIN c.members m GROUP BY c ORDER BY COUNT(m) DESC")
     List<Community> findPopularCommunities();
 
+    // (id, slug, name, member count) for every community - loads autocomplete
+    @Query("SELECT c.id, c.slug, c.name, COUNT(m) FROM Community c LEFT JOIN c.members m GROUP BY c.id, c.slug, c.name")
+    List<Object[]> findAutocompleteRows();
+
     // Search communities by name or description
     @Query("SELECT c FROM Community c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Community> searchCommunities(@Param("searchTerm") String searchTerm);
@@ -48,6 +58,13 @@ public interface CommunityRepository extends JpaRepository<Community, Long> {
     // Method needed for search functionality
     List<Community> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description);
 
+    List<Community> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description,
+                                                                                     Pageable pageable);
+
+    // (community id, member count) for a page of communities in one query; empty communities are absent
+    @Query("SELECT c.id, COUNT(m) FROM Community c JOIN c.members m WHERE c.id IN :communityIds GROUP BY c.id")
+    List<Object[]> countMembersByCommunityIds(@Param("communityIds") Collection<Long> communityIds);
+
     // Optional: Add methods for finding trending/popular communities
     List<Community> findTop10ByOrderByMembersDesc();
 }
@@ -27,4 +27,11 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
             "WHERE p.username LIKE %:query% AND c IN " +
             "(SELECT c2 FROM Conversation c2 JOIN c2.participants p2 WHERE p2 = :currentUser)")
     List<Conversation> searchConversationsByUsername(@Param("query") String query, @Param("currentUser") User currentUser);
+
+    @Query("SELECT COUNT(c) > 0 FROM Conversation c JOIN c.participants p WHERE c.id = :conversationId AND p.id = :userId")
+    boolean isParticipant(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+
+    @Query("SELECT COUNT(c) > 0 FROM Conversation c JOIN c.participants p1 JOIN c.participants p2 " +
+            "WHERE p1.id = :userId AND p2.id = :otherUserId")
+    boolean sharesConversation(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -27,6 +28,14 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     @Query("SELECT f.following FROM Follow f WHERE f.follower.id = :userId")
     List<User> findFollowingByFollowerId(@Param("userId") Long userId);
 
+    // Follower ids only - used for timeline fan-out without loading User rows
+    @Query("SELECT f.follower.id FROM Follow f WHERE f.following.id = :userId")
+    List<Long> findFollowerIdsByFollowingId(@Param("userId") Long userId);
+
+    // Which of the candidate users does this user follow
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId AND f.following.id IN :candidateIds")
+    List<Long> findFollowingIdsAmong(@Param("userId") Long userId, @Param("candidateIds") Collection<Long> candidateIds);
+
     // Count how many followers a user has
     @Query("SELECT COUNT(f) FROM Follow f WHERE f.following.id = :userId")
     int countFollowersByFollowingId(@Param("userId") Long userId);
@@ -8,11 +8,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
+public interface HashtagRepository extends JpaRepository<Hashtag, Long>, HashtagRepositoryCustom {
 
     // Find hashtag by its exact tag (including # symbol)
     Optional<Hashtag> findByTag(String tag);
@@ -24,6 +25,13 @@ public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
     // This is what your controller is using for search
     List<Hashtag> findByTagContainingIgnoreCase(String partialTag);
 
+    // (tag, count) pairs for autocomplete
+    @Query("SELECT h.tag, h.count FROM Hashtag h")
+    List<Object[]> findTagCounts();
+
+    @Query("SELECT h.tag, h.count FROM Hashtag h WHERE h.tag IN :tags")
+    List<Object[]> findTagCountsByTagIn(@Param("tags") Collection<String> tags);
+
     // Make sure there's a proper implementation method for your search
     @Query("SELECT h FROM Hashtag h WHERE LOWER(h.tag) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Hashtag> searchHashtags(@Param("searchTerm") String searchTerm);
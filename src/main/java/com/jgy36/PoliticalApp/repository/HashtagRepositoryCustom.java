@@ -0,0 +1,23 @@
+package com.jgy36.PoliticalApp.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based hashtag count updates that don't read-modify-write Hashtag entities
+ */
+public interface HashtagRepositoryCustom {
+
+    /**
+     * Create any missing hashtags and increment the count of every given tag by one, atomically.
+     *
+     * @param tags distinct tags, including the # prefix
+     * @return the ids of all the given hashtags
+     */
+    List<Long> upsertAndIncrement(Collection<String> tags);
+
+    /**
+     * Decrement the count of each hashtag attached to a post (never below zero)
+     */
+    void decrementForPost(Long postId);
+}
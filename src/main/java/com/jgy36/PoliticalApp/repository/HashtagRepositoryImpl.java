@@ -0,0 +1,92 @@
+package com.jgy36.PoliticalApp.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+
+/**
+ * On PostgreSQL the upsert is a single INSERT ... ON CONFLICT DO UPDATE ... RETURNING statement,
+ * so a post costs one round trip however many tags it has. Other databases (H2 in tests) use a
+ * batched standard MERGE followed by an id lookup.
+ */
+public class HashtagRepositoryImpl implements HashtagRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO hashtags (tag, count) SELECT t, 1 FROM unnest(?) AS t " +
+                    "ON CONFLICT (tag) DO UPDATE SET count = COALESCE(hashtags.count, 0) + 1 " +
+                    "RETURNING id";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO hashtags h USING (SELECT CAST(? AS VARCHAR(255)) AS tag) v ON h.tag = v.tag " +
+                    "WHEN MATCHED THEN UPDATE SET count = COALESCE(h.count, 0) + 1 " +
+                    "WHEN NOT MATCHED THEN INSERT (tag, count) VALUES (v.tag, 1)";
+
+    private static final String DECREMENT_FOR_POST =
+            "UPDATE hashtags SET count = count - 1 " +
+                    "WHERE count > 0 AND id IN (SELECT hashtag_id FROM post_hashtags WHERE post_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private volatile Boolean postgres;
+
+    public HashtagRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public List<Long> upsertAndIncrement(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Same lock order for every caller, so concurrent posts sharing tags can't deadlock
+        String[] sorted = new TreeSet<>(tags).toArray(new String[0]);
+
+        if (isPostgres()) {
+            return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(POSTGRES_UPSERT)) {
+                    Array array = connection.createArrayOf("text", sorted);
+                    statement.setArray(1, array);
+                    List<Long> ids = new ArrayList<>(sorted.length);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            ids.add(resultSet.getLong(1));
+                        }
+                    }
+                    array.free();
+                    return ids;
+                }
+            });
+        }
+
+        List<Object[]> rows = new ArrayList<>(sorted.length);
+        for (String tag : sorted) {
+            rows.add(new Object[]{tag});
+        }
+        jdbcTemplate.batchUpdate(MERGE_UPSERT, rows);
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM hashtags WHERE tag IN (:tags)",
+                new MapSqlParameterSource("tags", Arrays.asList(sorted)),
+                Long.class);
+    }
+
+    @Override
+    public void decrementForPost(Long postId) {
+        jdbcTemplate.update(DECREMENT_FOR_POST, postId);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -4,6 +4,7 @@ import com.jgy36.PoliticalApp.entity.Conversation;
 import com.jgy36.PoliticalApp.entity.Message;
 import com.jgy36.PoliticalApp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +26,28 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
             "WHERE p = :user AND m.sender != :user AND m.read = false")
     int countUnreadMessagesForUser(@Param("user") User user);
 
+    // Seeds for the materialized counters in UnreadCounters
+    @Query("SELECT COUNT(m) FROM Message m JOIN m.conversation c JOIN c.participants p " +
+            "WHERE p.id = :userId AND m.sender.id <> :userId AND m.read = false")
+    long countUnreadMessagesForUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId " +
+            "AND m.sender.id <> :userId AND m.read = false")
+    long countUnreadInConversation(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+
+    // Mark everyone else's messages in a conversation read in one statement
+    @Modifying
+    @Query("UPDATE Message m SET m.read = true WHERE m.conversation.id = :conversationId " +
+            "AND m.sender.id <> :userId AND m.read = false")
+    int markConversationRead(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+
+    // Mark everyone else's messages up to and including a message read (a client's delivery ack)
+    @Modifying
+    @Query("UPDATE Message m SET m.read = true WHERE m.conversation.id = :conversationId " +
+            "AND m.sender.id <> :userId AND m.read = false AND m.id <= :upToId")
+    int markReadUpTo(@Param("conversationId") Long conversationId, @Param("userId") Long userId,
+                     @Param("upToId") Long upToId);
+
     // Find recent messages for a user, one per conversation, ordered by sent time
     @Query("SELECT m FROM Message m WHERE m.id IN " +
             "(SELECT MAX(m2.id) FROM Message m2 JOIN m2.conversation c JOIN c.participants p " +
@@ -2,9 +2,15 @@ package com.jgy36.PoliticalApp.repository;
 
 import com.jgy36.PoliticalApp.entity.Notification;
 import com.jgy36.PoliticalApp.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +19,45 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     // Add this new method to find unread notifications
     List<Notification> findByRecipientAndReadFalse(User recipient);
+
+    long countByRecipientIdAndReadFalse(Long recipientId);
+
+    // One keyset page of a user's inbox, newest first
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPage(@Param("recipientId") Long recipientId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    // Notifications created or regrouped after the cursor, oldest first - lets a client catch up
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId " +
+            "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) " +
+            "ORDER BY n.createdAt ASC, n.id ASC")
+    List<Notification> findSince(@Param("recipientId") Long recipientId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.read = true AND n.createdAt < :cutoff ORDER BY n.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Both return how many notifications went from unread to read
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.read = false")
+    int markRead(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :recipientId AND n.read = false")
+    int markAllRead(@Param("recipientId") Long recipientId);
+
+    // Unread grouped notifications still open for new events
+    @Query("SELECT n FROM Notification n WHERE n.groupKey IN :groupKeys AND n.read = false AND n.createdAt > :since")
+    List<Notification> findOpenGroups(@Param("groupKeys") Collection<String> groupKeys,
+                                      @Param("since") LocalDateTime since);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,98 @@ public interface PostRepository extends JpaRepository<Post, Long> {
             "ORDER BY p.createdAt DESC")
     List<Post> findAllWithOriginalPostOrderByCreatedAtDesc();
 
+    // ==============================================
+    // KEYSET FEED QUERIES
+    // Each returns the posts strictly older than (createdAt, id), newest first.
+    // Only to-one associations are fetch-joined so the page limit is applied in SQL.
+    // ==============================================
+
+    @Query("SELECT p FROM Post p " +
+            "LEFT JOIN FETCH p.author " +
+            "LEFT JOIN FETCH p.originalPost op " +
+            "LEFT JOIN FETCH op.author " +
+            "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedPage(@Param("createdAt") LocalDateTime createdAt,
+                            @Param("id") Long id,
+                            Pageable pageable);
+
+    @Query("SELECT p FROM Post p " +
+            "LEFT JOIN FETCH p.author " +
+            "LEFT JOIN FETCH p.originalPost op " +
+            "LEFT JOIN FETCH op.author " +
+            "WHERE p.author.id IN (SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFollowingFeedPage(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("SELECT p FROM Post p " +
+            "LEFT JOIN FETCH p.author " +
+            "LEFT JOIN FETCH p.originalPost op " +
+            "LEFT JOIN FETCH op.author " +
+            "WHERE p.community.id = :communityId " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findCommunityFeedPageById(@Param("communityId") Long communityId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query("SELECT p FROM Post p " +
+            "LEFT JOIN FETCH p.author " +
+            "LEFT JOIN FETCH p.originalPost op " +
+            "LEFT JOIN FETCH op.author " +
+            "WHERE p.community.slug = :communitySlug " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findCommunityFeedPage(@Param("communitySlug") String communitySlug,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    // ==============================================
+    // HOME TIMELINE QUERIES (ids only, used by TimelineService)
+    // ==============================================
+
+    // Newest post ids from followed authors - seeds a materialized timeline
+    @Query("SELECT p.id FROM Post p " +
+            "WHERE p.author.id IN (SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) " +
+            "ORDER BY p.id DESC")
+    List<Long> findFollowingFeedPostIds(@Param("userId") Long userId, Pageable pageable);
+
+    // Pull path for authors that are too widely followed to fan out to
+    @Query("SELECT p.id FROM Post p WHERE p.author.id IN :authorIds AND p.id < :beforeId ORDER BY p.id DESC")
+    List<Long> findPostIdsByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
+
+    // Load a page of posts by id; callers restore the timeline order themselves
+    @Query("SELECT p FROM Post p " +
+            "LEFT JOIN FETCH p.author " +
+            "LEFT JOIN FETCH p.originalPost op " +
+            "LEFT JOIN FETCH op.author " +
+            "WHERE p.id IN :ids")
+    List<Post> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Batch lookups used by PostHydrator - one query per DTO field for a whole page of posts
+    @Query("SELECT p.id, h.tag FROM Post p JOIN p.hashtags h WHERE p.id IN :ids")
+    List<Object[]> findHashtagsByPostIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT m.post.id, m FROM MediaAttachment m WHERE m.post.id IN :ids ORDER BY m.id")
+    List<Object[]> findMediaByPostIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id, c.slug, c.name, c.color FROM Post p JOIN p.community c WHERE p.id IN :ids")
+    List<Object[]> findCommunitiesByPostIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Post p JOIN p.likedUsers u WHERE p.id IN :ids AND u.email = :email")
+    List<Long> findLikedPostIds(@Param("ids") Collection<Long> ids, @Param("email") String email);
+
+    @Query("SELECT sp.id FROM User u JOIN u.savedPosts sp WHERE u.email = :email AND sp.id IN :ids")
+    List<Long> findSavedPostIds(@Param("ids") Collection<Long> ids, @Param("email") String email);
+
     // Legacy method kept for backward compatibility
     List<Post> findAllByOrderByCreatedAtDesc();
 
@@ -67,6 +160,20 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     // Find posts containing text
     List<Post> findByContentContainingIgnoreCase(String text);
 
+    // Ids of the posts tagged with a hashtag, newest first
+    @Query("SELECT p.id FROM Post p JOIN p.hashtags h WHERE h.tag = :tag ORDER BY p.id DESC")
+    List<Long> findIdsByHashtag(@Param("tag") String tag);
+
+    // Ids of the posts containing text, newest first
+    @Query("SELECT p.id FROM Post p WHERE LOWER(p.content) LIKE LOWER(CONCAT('%', :text, '%')) ORDER BY p.id DESC")
+    List<Long> findIdsByContentContaining(@Param("text") String text);
+
+    // A page of posts containing text, newest first, with their authors loaded
+    @Query("SELECT p FROM Post p JOIN FETCH p.author " +
+            "WHERE LOWER(p.content) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findWithAuthorByContentContaining(@Param("text") String text, Pageable pageable);
+
     // Find posts with a specific hashtag
     @Query("SELECT p FROM Post p JOIN p.hashtags h WHERE h.tag = :tag")
     List<Post> findByHashtagTag(@Param("tag") String tag);
@@ -84,6 +191,52 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("UPDATE Post p SET p.repostCount = p.repostCount - 1 WHERE p.id = :postId AND p.repostCount > 0")
     void decrementRepostCount(@Param("postId") Long postId);
 
+    // Update comment counters in place, without loading the comments collection
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + 1 WHERE p.id = :postId")
+    void incrementCommentCount(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount - 1 WHERE p.id = :postId AND p.commentCount > 0")
+    void decrementCommentCount(@Param("postId") Long postId);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    int findLikeCount(@Param("postId") Long postId);
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM Post p JOIN p.likedUsers u " +
+            "WHERE p.id = :postId AND u.id = :userId")
+    boolean isLikedByUser(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // (id, content) pages in id order - rebuilds the search index on startup
+    @Query("SELECT p.id, p.content FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findIdAndContentAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // (tag, createdAt) for every hashtag use since a point in time, newest first - seeds trending on startup
+    @Query("SELECT h.tag, p.createdAt FROM Post p JOIN p.hashtags h WHERE p.createdAt >= :since ORDER BY p.createdAt DESC")
+    List<Object[]> findHashtagUsesSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    // Recompute every counter from its source rows; only rows that have drifted are written
+    @Modifying
+    @Query(value = "UPDATE posts p SET like_count = " +
+            "(SELECT COUNT(*) FROM posts_liked_users l WHERE l.post_id = p.id) " +
+            "WHERE p.like_count <> (SELECT COUNT(*) FROM posts_liked_users l WHERE l.post_id = p.id)", nativeQuery = true)
+    int reconcileLikeCounts();
+
+    @Modifying
+    @Query(value = "UPDATE posts p SET comment_count = " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+            "WHERE p.comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)", nativeQuery = true)
+    int reconcileCommentCounts();
+
+    @Modifying
+    @Query(value = "UPDATE posts p SET repost_count = " +
+            "(SELECT COUNT(*) FROM posts r WHERE r.original_post_id = p.id) " +
+            "WHERE p.repost_count <> (SELECT COUNT(*) FROM posts r WHERE r.original_post_id = p.id)", nativeQuery = true)
+    int reconcileRepostCounts();
+
     // Updated to include original post data
     @Query("SELECT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.originalPost WHERE p.originalPostId = :postId ORDER BY p.createdAt DESC")
     List<Post> findRepostsOfPost(@Param("postId") Long postId);
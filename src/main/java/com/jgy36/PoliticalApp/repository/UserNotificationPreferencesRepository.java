@@ -3,8 +3,12 @@ package com.jgy36.PoliticalApp.repository;
 import com.jgy36.PoliticalApp.entity.UserNotificationPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserNotificationPreferencesRepository extends JpaRepository<UserNotificationPreferences, Long> {
     Optional<UserNotificationPreferences> findByUserId(Long userId);
+
+    List<UserNotificationPreferences> findByUserIdIn(Collection<Long> userIds);
 }
@@ -2,11 +2,14 @@ package com.jgy36.PoliticalApp.repository;
 
 import com.jgy36.PoliticalApp.entity.Role;
 import com.jgy36.PoliticalApp.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +19,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    // Resolve all @mentions in a post or comment in one query
+    List<User> findByUsernameIn(Collection<String> usernames);
+
     List<User> findByRole(Role role);
 
     Optional<User> findByVerificationToken(String token);
@@ -36,12 +42,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :userId")
     int countPosts(Long userId);
 
+    // (id, username, displayName, follower count) for every user - loads autocomplete
+    @Query("SELECT u.id, u.username, u.displayName, COUNT(f) FROM User u LEFT JOIN Follow f ON f.following = u " +
+            "GROUP BY u.id, u.username, u.displayName")
+    List<Object[]> findAutocompleteRows();
+
     // Basic username search
     List<User> findByUsernameContainingIgnoreCase(String query);
 
     // ✅ Search by username OR displayName (for search functionality)
     List<User> findByUsernameContainingIgnoreCaseOrDisplayNameContainingIgnoreCase(String username, String displayName);
 
+    List<User> findByUsernameContainingIgnoreCaseOrDisplayNameContainingIgnoreCase(String username, String displayName,
+                                                                                   Pageable pageable);
+
+    // (user id, follower count) for a page of users in one query; users without followers are absent
+    @Query("SELECT f.following.id, COUNT(f) FROM Follow f WHERE f.following.id IN :userIds GROUP BY f.following.id")
+    List<Object[]> countFollowersByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     // ✅ Add this new method for case-insensitive username check
     boolean existsByUsernameIgnoreCase(String username);
 
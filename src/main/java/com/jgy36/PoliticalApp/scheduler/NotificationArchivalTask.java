@@ -0,0 +1,64 @@
+package com.jgy36.PoliticalApp.scheduler;
+
+import com.jgy36.PoliticalApp.repository.ArchivedNotificationRepository;
+import com.jgy36.PoliticalApp.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves read notifications older than app.notifications.archive-after-days into the
+ * notification_archive table, so the notifications table only holds what inboxes actually show.
+ * Works in batches, each in its own transaction, so a large backlog never holds locks for long.
+ */
+@Component
+public class NotificationArchivalTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationArchivalTask.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ArchivedNotificationRepository archivedNotificationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.notifications.archive-after-days:30}")
+    private int archiveAfterDays;
+
+    @Value("${app.notifications.archive-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${app.notifications.archive-cron:0 15 4 * * *}") // Run nightly by default
+    public void archiveReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<Long> ids = notificationRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archivedNotificationRepository.copyFromNotifications(ids);
+                notificationRepository.deleteByIdIn(ids);
+                return ids.size();
+            });
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            logger.info("Archived {} read notifications older than {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.jgy36.PoliticalApp.scheduler;
+
+import com.jgy36.PoliticalApp.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repairs drift in the denormalized like/comment/repost counters on posts
+ * (e.g. from writes that bypassed PostService, or rows backfilled with the column default)
+ */
+@Component
+public class PostCounterReconciliationTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterReconciliationTask.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Scheduled(cron = "${app.counters.reconcile-cron:0 30 3 * * *}") // Run nightly by default
+    @Transactional
+    public void reconcilePostCounters() {
+        int likes = postRepository.reconcileLikeCounts();
+        int comments = postRepository.reconcileCommentCounts();
+        int reposts = postRepository.reconcileRepostCounts();
+
+        if (likes + comments + reposts > 0) {
+            logger.info("Reconciled post counters: {} like, {} comment, {} repost counts corrected",
+                    likes, comments, reposts);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.jgy36.PoliticalApp.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repairs drift in the materialized unread counters (e.g. from rows changed outside the services)
+ * by dropping them; UnreadCounters reseeds each one from the notifications and messages tables
+ * the next time it is read or written.
+ */
+@Component
+public class UnreadCounterReconciliationTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterReconciliationTask.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Scheduled(cron = "${app.unread.reconcile-cron:0 45 3 * * *}") // Run nightly by default
+    @Transactional
+    public void resetUnreadCounters() {
+        int users = jdbcTemplate.update("DELETE FROM user_unread_counts");
+        int conversations = jdbcTemplate.update("DELETE FROM conversation_unread_counts");
+        logger.info("Cleared unread counters for {} users and {} conversation participants", users, conversations);
+    }
+}
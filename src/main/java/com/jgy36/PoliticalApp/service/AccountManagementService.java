@@ -4,6 +4,7 @@ import com.jgy36.PoliticalApp.entity.ConnectedAccount;
 import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.repository.ConnectedAccountRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
@@ -54,6 +55,11 @@ public class AccountManagementService {
      * Get the current authenticated user's ID
      */
     private Long getCurrentUserId() {
+        // Carried on the principal for token-authenticated requests
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            return userId;
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         User user = userRepository.findByEmail(email)
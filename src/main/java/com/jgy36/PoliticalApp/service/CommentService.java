@@ -10,6 +10,7 @@ import com.jgy36.PoliticalApp.repository.CommentLikeRepository;
 import com.jgy36.PoliticalApp.repository.CommentRepository;
 import com.jgy36.PoliticalApp.repository.PostRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.utils.ContentTokenizer;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -17,8 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -91,6 +91,7 @@ public class CommentService {
 
         Comment comment = new Comment(content, user, post);
         Comment savedComment = commentRepository.save(comment);
+        postRepository.incrementCommentCount(postId);
 
         // Notify post author if different from commenter
         if (!post.getAuthor().equals(user)) {
@@ -105,27 +106,24 @@ public class CommentService {
         }
 
         // Notify users who previously commented
-        commentRepository.findByPost(post).stream()
-                .map(Comment::getUser)
-                .distinct()
-                .filter(commentUser -> !commentUser.equals(user) && !commentUser.equals(post.getAuthor()))
-                .forEach(prevUser -> notificationService.createNotification(
-                        prevUser,
+        for (Long prevUserId : commentRepository.findCommenterIdsByPostId(post.getId())) {
+            if (!prevUserId.equals(user.getId()) && !prevUserId.equals(post.getAuthor().getId())) {
+                notificationService.createNotification(
+                        prevUserId,
                         user.getUsername() + " also commented on a post you interacted with",
                         "comment_created",
                         post.getId(),
                         savedComment.getId(),
                         post.getCommunity() != null ? post.getCommunity().getSlug() : null
-                ));
-
-        // Detect Mentions and Notify Users - IMPROVED REGEX FOR HYPHENATED USERNAMES
-        Matcher matcher = Pattern.compile("@(\\w+(?:-\\w+)*)").matcher(content);
-        while (matcher.find()) {
-            String mentionedUsername = matcher.group(1);
-            System.out.println("COMMENT DEBUG: Found mention @" + mentionedUsername + " in comment for post " + post.getId());
-            userRepository.findByUsername(mentionedUsername).ifPresent(mentionedUser -> {
+                );
+            }
+        }
+
+        // Detect Mentions and Notify Users - hyphenated usernames included, one lookup for all of them
+        Set<String> mentionedUsernames = ContentTokenizer.tokenize(content).getDistinctMentions();
+        if (!mentionedUsernames.isEmpty()) {
+            for (User mentionedUser : userRepository.findByUsernameIn(mentionedUsernames)) {
                 if (!mentionedUser.equals(user)) {
-                    System.out.println("COMMENT DEBUG: Creating notification for user " + mentionedUser.getUsername());
                     notificationService.createNotification(
                             mentionedUser,
                             user.getUsername() + " mentioned you in a comment",
@@ -134,10 +132,8 @@ public class CommentService {
                             savedComment.getId(),
                             post.getCommunity() != null ? post.getCommunity().getSlug() : null
                     );
-                } else {
-                    System.out.println("COMMENT DEBUG: Not creating notification for self-mention");
                 }
-            });
+            }
         }
 
         return convertToDTO(savedComment);
@@ -166,9 +162,10 @@ public class CommentService {
 
             // ✅ Notify comment owner
             if (!comment.getUser().equals(user)) {
-                notificationService.createNotification(
+                notificationService.createGroupedNotification(
                         comment.getUser(),
-                        user.getUsername() + " liked your comment",
+                        user,
+                        " liked your comment",
                         "like",
                         comment.getPost().getId(),
                         comment.getId(),
@@ -193,6 +190,9 @@ public class CommentService {
         Comment reply = new Comment(content, user, parentComment.getPost());
         reply.setParentComment(parentComment);
         Comment savedReply = commentRepository.save(reply);
+        if (parentComment.getPost() != null) {
+            postRepository.incrementCommentCount(parentComment.getPost().getId());
+        }
 
         // ✅ Notify parent comment author
         if (!parentComment.getUser().equals(user)) {
@@ -207,10 +207,9 @@ public class CommentService {
         }
 
         // ✅ Detect Mentions and Notify Users
-        Matcher matcher = Pattern.compile("@(\\w+)").matcher(content);
-        while (matcher.find()) {
-            String mentionedUsername = matcher.group(1);
-            userRepository.findByUsername(mentionedUsername).ifPresent(mentionedUser -> {
+        Set<String> mentionedUsernames = ContentTokenizer.tokenize(content).getDistinctMentions();
+        if (!mentionedUsernames.isEmpty()) {
+            for (User mentionedUser : userRepository.findByUsernameIn(mentionedUsernames)) {
                 if (!mentionedUser.equals(user)) {
                     notificationService.createNotification(
                             mentionedUser,
@@ -221,7 +220,7 @@ public class CommentService {
                             parentComment.getPost().getCommunity() != null ? parentComment.getPost().getCommunity().getSlug() : null
                     );
                 }
-            });
+            }
         }
 
         return convertToDTO(savedReply);
@@ -243,5 +242,8 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        if (comment.getPost() != null) {
+            postRepository.decrementCommentCount(comment.getPost().getId());
+        }
     }
 }
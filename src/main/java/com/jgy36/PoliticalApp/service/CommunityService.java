@@ -9,6 +9,9 @@ import com.jgy36.PoliticalApp.repository.CommunityRepository;
 import com.jgy36.PoliticalApp.repository.CommunityUserPreferenceRepository;
 import com.jgy36.PoliticalApp.repository.PostRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.autocomplete.AutocompleteService;
+import com.jgy36.PoliticalApp.service.cache.QueryResultCache;
+import com.jgy36.PoliticalApp.service.search.PostSearchIndex;
 import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +36,18 @@ public class CommunityService {
     @Autowired
     private CommunityUserPreferenceRepository communityUserPreferenceRepository;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
     @Autowired
     public CommunityService(CommunityRepository communityRepository,
                             UserRepository userRepository,
@@ -279,7 +294,10 @@ public class CommunityService {
             community.setColor(color);
         }
 
-        return communityRepository.save(community);
+        Community savedCommunity = communityRepository.save(community);
+        autocompleteService.onCommunitySaved(savedCommunity);
+        queryResultCache.onCommunitiesChanged();
+        return savedCommunity;
     }
 
     // Join a community
@@ -290,6 +308,8 @@ public class CommunityService {
 
         community.addMember(currentUser);
         communityRepository.save(community);
+        autocompleteService.onCommunitySaved(community);
+        queryResultCache.onCommunitiesChanged();
     }
 
     // Leave a community
@@ -300,6 +320,8 @@ public class CommunityService {
 
         community.removeMember(currentUser);
         communityRepository.save(community);
+        autocompleteService.onCommunitySaved(community);
+        queryResultCache.onCommunitiesChanged();
     }
 
     // Check if user is a member of a community
@@ -331,12 +353,6 @@ public class CommunityService {
         return communityRepository.findPopularCommunities();
     }
 
-    // Get posts from a community
-    public List<Post> getCommunityPosts(String slug) {
-        Community community = getCommunityBySlug(slug);
-        return postRepository.findByCommunityOrderByCreatedAtDesc(community);
-    }
-
     // Create a post in a community
     @Transactional
     public Post createCommunityPost(String slug, String content) {
@@ -351,6 +367,9 @@ public class CommunityService {
         Post post = new Post(content, currentUser);
         post.setCommunity(community);
         Post savedPost = postRepository.save(post);
+        timelineService.onPostCreated(currentUser.getId(), savedPost.getId());
+        postSearchIndex.onPostSaved(savedPost.getId(), savedPost.getContent());
+        queryResultCache.onPostContentChanged(savedPost.getContent());
 
         // Create notifications for users who have enabled notifications for this community
         createNotificationsForNewPost(community, currentUser, post);
@@ -382,10 +401,9 @@ public class CommunityService {
     // Helper method to get the current authenticated user
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
 
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NoSuchElementException("User not found with email: " + email));
+        return SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
+                .orElseThrow(() -> new NoSuchElementException("User not found with email: " + auth.getName()));
     }
 
     /**
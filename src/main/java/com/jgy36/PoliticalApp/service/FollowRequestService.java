@@ -8,6 +8,8 @@ import com.jgy36.PoliticalApp.exception.ResourceNotFoundException;
 import com.jgy36.PoliticalApp.repository.FollowRepository;
 import com.jgy36.PoliticalApp.repository.FollowRequestRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.autocomplete.AutocompleteService;
+import com.jgy36.PoliticalApp.service.cache.QueryResultCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -36,6 +38,15 @@ public class FollowRequestService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
     /**
      * Create a follow request or direct follow based on target user's privacy settings
      *
@@ -92,11 +103,13 @@ public class FollowRequestService {
             System.out.println("Creating direct follow - public account");
             currentUser.follow(targetUser);
             userRepository.save(currentUser);
+            timelineService.onFollowGraphChanged(currentUser.getId());
 
             // Create follow notification for public account
-            notificationService.createNotification(
+            notificationService.createGroupedNotification(
                     targetUser,
-                    currentUser.getUsername() + " started following you",
+                    currentUser,
+                    " started following you",
                     "follow",           // notification type
                     currentUser.getId(), // reference ID (follower ID)
                     null,               // no secondary reference
@@ -159,6 +172,9 @@ public class FollowRequestService {
         User requester = request.getRequester();
         Follow follow = new Follow(requester, currentUser);
         followRepository.save(follow);
+        timelineService.onFollowGraphChanged(requester.getId());
+        autocompleteService.onFollowersChanged(currentUser.getId());
+        queryResultCache.onUsersChanged();
 
         // Create notification for request approval
         notificationService.createNotification(
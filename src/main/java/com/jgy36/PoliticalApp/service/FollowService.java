@@ -4,6 +4,9 @@ import com.jgy36.PoliticalApp.entity.Follow;
 import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.repository.FollowRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.autocomplete.AutocompleteService;
+import com.jgy36.PoliticalApp.service.cache.QueryResultCache;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -20,17 +23,23 @@ public class FollowService {
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final FollowRequestService followRequestService;
+    private final TimelineService timelineService;
+    private final AutocompleteService autocompleteService;
+    private final QueryResultCache queryResultCache;
 
-    public FollowService(FollowRepository followRepository, UserRepository userRepository, NotificationService notificationService, FollowRequestService followRequestService) {
+    public FollowService(FollowRepository followRepository, UserRepository userRepository, NotificationService notificationService, FollowRequestService followRequestService, TimelineService timelineService, AutocompleteService autocompleteService, QueryResultCache queryResultCache) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
         this.followRequestService = followRequestService;
+        this.timelineService = timelineService;
+        this.autocompleteService = autocompleteService;
+        this.queryResultCache = queryResultCache;
     }
 
     private User getAuthenticatedUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userRepository.findByEmail(auth.getName())
+        return SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
     }
 
@@ -49,11 +58,15 @@ public class FollowService {
         if (!wasAlreadyFollowing) {
             Follow follow = new Follow(currentUser, userToFollow);
             followRepository.save(follow);
+            timelineService.onFollowGraphChanged(currentUser.getId());
+            autocompleteService.onFollowersChanged(userToFollow.getId());
+            queryResultCache.onUsersChanged();
 
             // Create notification for the followed user with updated format
-            notificationService.createNotification(
+            notificationService.createGroupedNotification(
                     userToFollow,
-                    currentUser.getUsername() + " started following you",
+                    currentUser,
+                    " started following you",
                     "follow",           // notification type
                     currentUser.getId(), // reference ID (follower ID)
                     null,               // no secondary reference
@@ -89,6 +102,9 @@ public class FollowService {
 
         if (wasFollowing) {
             followRepository.deleteByFollowerAndFollowing(currentUser, userToUnfollow);
+            timelineService.onFollowGraphChanged(currentUser.getId());
+            autocompleteService.onFollowersChanged(userToUnfollow.getId());
+            queryResultCache.onUsersChanged();
         }
 
         // Always return updated follow counts
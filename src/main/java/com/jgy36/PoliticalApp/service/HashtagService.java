@@ -4,12 +4,17 @@ import com.jgy36.PoliticalApp.entity.Hashtag;
 import com.jgy36.PoliticalApp.entity.Post;
 import com.jgy36.PoliticalApp.repository.HashtagRepository;
 import com.jgy36.PoliticalApp.repository.PostRepository;
+import com.jgy36.PoliticalApp.service.cache.QueryResultCache;
+import com.jgy36.PoliticalApp.service.search.PostSearchIndex;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,10 +22,15 @@ public class HashtagService {
 
     private final HashtagRepository hashtagRepository;
     private final PostRepository postRepository;
+    private final PostSearchIndex postSearchIndex;
+    private final QueryResultCache queryResultCache;
 
-    public HashtagService(HashtagRepository hashtagRepository, PostRepository postRepository) {
+    public HashtagService(HashtagRepository hashtagRepository, PostRepository postRepository,
+                          PostSearchIndex postSearchIndex, QueryResultCache queryResultCache) {
         this.hashtagRepository = hashtagRepository;
         this.postRepository = postRepository;
+        this.postSearchIndex = postSearchIndex;
+        this.queryResultCache = queryResultCache;
     }
 
     /**
@@ -43,11 +53,33 @@ public class HashtagService {
         System.out.println("🔍 Searching hashtags with query: " + query);
 
         // Clean up the query - search with or without # prefix
-        String searchTerm = query;
-        if (query.startsWith("#")) {
-            searchTerm = query.substring(1);
+        String searchTerm = query.startsWith("#") ? query.substring(1) : query;
+
+        // Matching ignores case, so the lowercased term identifies the result
+        String cacheKey = searchTerm.toLowerCase(Locale.ROOT);
+        // Only the ids are cached - entities can't outlive the session that loaded them
+        List<Long> ids = queryResultCache.get(QueryResultCache.HASHTAG_SEARCH, cacheKey, 0, 0,
+                List.of(QueryResultCache.hashtagSearchDependency(cacheKey)),
+                () -> findHashtags(query, searchTerm).stream()
+                        .map(Hashtag::getId)
+                        .collect(Collectors.toUnmodifiableList()));
+        return findAllInOrder(ids);
+    }
+
+    // Load hashtags by id, keeping the order of the ids and skipping ones that no longer exist
+    private List<Hashtag> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        Map<Long, Hashtag> byId = hashtagRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Hashtag::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
+    private List<Hashtag> findHashtags(String query, String searchTerm) {
         // First try the specific method if available
         try {
             List<Hashtag> results = hashtagRepository.findByTagContainingIgnoreCase(searchTerm);
@@ -63,33 +95,6 @@ public class HashtagService {
         }
     }
 
-    /**
-     * Gets trending hashtags (most used)
-     *
-     * @return List of trending hashtags
-     */
-    public List<Hashtag> getTrendingHashtags() {
-        // Default to top 10
-        return getTrendingHashtags(10);
-    }
-
-    /**
-     * Gets trending hashtags with a limit
-     *
-     * @param limit Number of hashtags to return
-     * @return List of trending hashtags with counts
-     */
-    public List<Hashtag> getTrendingHashtags(int limit) {
-        // Get all hashtags
-        List<Hashtag> allTags = hashtagRepository.findAll();
-
-        // Sort by count in descending order and limit the results
-        return allTags.stream()
-                .sorted(Comparator.comparing(Hashtag::getCount).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-
     /**
      * Gets information about a hashtag
      *
@@ -109,6 +114,9 @@ public class HashtagService {
         }
 
         // If not found in database, count posts containing this hashtag
+        if (postSearchIndex.isReady()) {
+            return postSearchIndex.countPostsWithHashtag(tagText);
+        }
         List<Post> posts = postRepository.findByContentContainingIgnoreCase(tagText);
         return posts.size();
     }
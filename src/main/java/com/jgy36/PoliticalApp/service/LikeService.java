@@ -2,6 +2,8 @@ package com.jgy36.PoliticalApp.service;
 
 import com.jgy36.PoliticalApp.entity.*;
 import com.jgy36.PoliticalApp.repository.*;
+import com.jgy36.PoliticalApp.service.like.LikeWriteBuffer;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -18,6 +20,7 @@ public class LikeService {
     private final CommentLikeRepository commentLikeRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final LikeWriteBuffer likeWriteBuffer;
 
     public LikeService(
             PostRepository postRepository,
@@ -25,18 +28,20 @@ public class LikeService {
             PostLikeRepository postLikeRepository,
             CommentLikeRepository commentLikeRepository,
             UserRepository userRepository,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            LikeWriteBuffer likeWriteBuffer) {
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
         this.postLikeRepository = postLikeRepository;
         this.commentLikeRepository = commentLikeRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.likeWriteBuffer = likeWriteBuffer;
     }
 
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userRepository.findByEmail(auth.getName())
+        return SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
     }
 
@@ -46,28 +51,21 @@ public class LikeService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new NoSuchElementException("Post not found"));
 
-        // Check if already liked
-        if (postLikeRepository.findByPostAndUser(post, currentUser).isPresent()) {
-            // Unlike the post
-            postLikeRepository.deleteByPostAndUser(post, currentUser);
-        } else {
-            // Like the post
-            PostLike postLike = new PostLike();
-            postLike.setPost(post);
-            postLike.setUser(currentUser);
-            postLikeRepository.save(postLike);
+        // Buffered - see LikeWriteBuffer
+        boolean liked = likeWriteBuffer.toggle(postId, currentUser.getId(), currentUser.getEmail(),
+                () -> postRepository.isLikedByUser(postId, currentUser.getId()));
 
-            // Create notification if you're not liking your own post
-            if (!post.getAuthor().equals(currentUser)) {
-                notificationService.createNotification(
-                        post.getAuthor(),
-                        currentUser.getUsername() + " liked your post",
-                        "like",
-                        post.getId(),
-                        null,
-                        post.getCommunity() != null ? post.getCommunity().getSlug() : null
-                );
-            }
+        // Create notification if you're not liking your own post
+        if (liked && !post.getAuthor().equals(currentUser)) {
+            notificationService.createGroupedNotification(
+                    post.getAuthor(),
+                    currentUser,
+                    " liked your post",
+                    "like",
+                    post.getId(),
+                    null,
+                    post.getCommunity() != null ? post.getCommunity().getSlug() : null
+            );
         }
     }
 
@@ -89,9 +87,10 @@ public class LikeService {
 
             // Create notification if you're not liking your own comment
             if (!comment.getUser().equals(currentUser)) {
-                notificationService.createNotification(
+                notificationService.createGroupedNotification(
                         comment.getUser(),
-                        currentUser.getUsername() + " liked your comment",
+                        currentUser,
+                        " liked your comment",
                         "like",
                         comment.getPost().getId(),
                         comment.getId(),
@@ -6,6 +6,9 @@ import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.repository.ConversationRepository;
 import com.jgy36.PoliticalApp.repository.MessageRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.messaging.MessagingGateway;
+import com.jgy36.PoliticalApp.service.unread.UnreadCounters;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,17 +26,23 @@ public class MessageService {
     private final ConversationRepository conversationRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final UnreadCounters unreadCounters;
+    private final MessagingGateway messagingGateway;
 
     @Autowired
     public MessageService(
             MessageRepository messageRepository,
             ConversationRepository conversationRepository,
             UserRepository userRepository,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            UnreadCounters unreadCounters,
+            MessagingGateway messagingGateway) {
         this.messageRepository = messageRepository;
         this.conversationRepository = conversationRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.unreadCounters = unreadCounters;
+        this.messagingGateway = messagingGateway;
     }
 
     /**
@@ -41,7 +50,7 @@ public class MessageService {
      */
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userRepository.findByEmail(auth.getName())
+        return SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new IllegalStateException("User not found"));
     }
 
@@ -54,6 +63,10 @@ public class MessageService {
         User currentUser = getCurrentUser();
         List<Conversation> conversations = conversationRepository.findConversationsByParticipant(currentUser);
 
+        // Unread counts for every conversation from the materialized counters, in one query
+        Map<Long, Integer> unreadCounts = unreadCounters.conversations(currentUser.getId(),
+                conversations.stream().map(Conversation::getId).collect(Collectors.toList()));
+
         return conversations.stream()
                 .map(conversation -> {
                     // Get other participant(s)
@@ -65,7 +78,7 @@ public class MessageService {
                     Message latestMessage = conversation.getLatestMessage();
 
                     // Count unread messages
-                    int unreadCount = conversation.getUnreadCount(currentUser);
+                    int unreadCount = unreadCounts.getOrDefault(conversation.getId(), 0);
 
                     Map<String, Object> conversationData = new HashMap<>();
                     conversationData.put("id", conversation.getId());
@@ -222,15 +235,22 @@ public class MessageService {
         conversation.setUpdatedAt(LocalDateTime.now());
         conversationRepository.save(conversation);
 
-        // Send notifications to other participants
+        // Send notifications to other participants and count the message as unread for them
         conversation.getParticipants().stream()
                 .filter(user -> !user.equals(currentUser))
+                .sorted(Comparator.comparing(User::getId))
                 .forEach(recipient -> {
+                    unreadCounters.messageReceived(conversation.getId(), recipient.getId());
                     String notificationMessage = currentUser.getUsername() + " sent you a message: \"" +
                             (content.length() > 50 ? content.substring(0, 47) + "..." : content) + "\"";
                     notificationService.createNotification(recipient, notificationMessage);
                 });
 
+        // Push it to the participants' open sessions once committed
+        messagingGateway.messageSent(message, conversation.getParticipants().stream()
+                .map(User::getEmail)
+                .collect(Collectors.toList()));
+
         return message;
     }
 
@@ -239,18 +259,17 @@ public class MessageService {
      */
     @Transactional
     public void markConversationAsRead(Conversation conversation, User currentUser) {
-        List<Message> unreadMessages = messageRepository.findUnreadMessagesInConversation(conversation, currentUser);
-
-        unreadMessages.forEach(message -> {
-            message.setRead(true);
-            messageRepository.save(message);
-        });
+        int read = messageRepository.markConversationRead(conversation.getId(), currentUser.getId());
+        unreadCounters.messagesRead(conversation.getId(), currentUser.getId(), read);
+        if (read > 0) {
+            messagingGateway.conversationRead(conversation.getId(), currentUser.getId(), null);
+        }
     }
 
     /**
      * Count unread messages for a user
      */
     public long countUnreadMessagesForUser(User user) {
-        return messageRepository.countUnreadMessagesForUser(user);
+        return unreadCounters.messages(user.getId());
     }
 }
@@ -5,6 +5,8 @@ import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.entity.UserNotificationPreferences;
 import com.jgy36.PoliticalApp.repository.UserNotificationPreferencesRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.notification.NotificationPreferenceCache;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,16 +17,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class NotificationPreferencesService {
     private final UserNotificationPreferencesRepository preferencesRepository;
     private final UserRepository userRepository;
+    private final NotificationPreferenceCache preferenceCache;
 
-    public NotificationPreferencesService(UserNotificationPreferencesRepository preferencesRepository, UserRepository userRepository) {
+    public NotificationPreferencesService(UserNotificationPreferencesRepository preferencesRepository, UserRepository userRepository,
+                                          NotificationPreferenceCache preferenceCache) {
         this.preferencesRepository = preferencesRepository;
         this.userRepository = userRepository;
+        this.preferenceCache = preferenceCache;
     }
 
     /**
      * Get the current authenticated user's ID
      */
     private Long getCurrentUserId() {
+        // Carried on the principal for token-authenticated requests
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            return userId;
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         User user = userRepository.findByEmail(email)
@@ -71,6 +81,7 @@ public class NotificationPreferencesService {
         preferences.setFollowNotifications(preferencesDto.isFollowNotifications());
         preferences.setLikeNotifications(preferencesDto.isLikeNotifications());
 
+        preferenceCache.invalidate(userId);
         return preferencesRepository.save(preferences);
     }
 
@@ -99,6 +110,7 @@ public class NotificationPreferencesService {
         preferences.setFollowNotifications(true);
         preferences.setLikeNotifications(true);
 
+        preferenceCache.invalidate(userId);
         return preferencesRepository.save(preferences);
     }
 
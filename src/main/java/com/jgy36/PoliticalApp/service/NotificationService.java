@@ -1,88 +1,173 @@
 package com.jgy36.PoliticalApp.service;
 
+import com.jgy36.PoliticalApp.dto.FeedCursor;
+import com.jgy36.PoliticalApp.dto.NotificationDTO;
+import com.jgy36.PoliticalApp.dto.NotificationPageDTO;
 import com.jgy36.PoliticalApp.entity.*;
+import com.jgy36.PoliticalApp.repository.ArchivedNotificationRepository;
 import com.jgy36.PoliticalApp.repository.NotificationRepository;
-import com.jgy36.PoliticalApp.repository.UserNotificationPreferencesRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.notification.NotificationOutbox;
+import com.jgy36.PoliticalApp.service.notification.NotificationPushRegistry;
+import com.jgy36.PoliticalApp.service.unread.UnreadCounters;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class NotificationService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Newest first, matching the inbox queries
+    private static final Comparator<NotificationDTO> NEWEST_FIRST = Comparator
+            .comparing(NotificationDTO::getCreatedAt)
+            .thenComparing(NotificationDTO::getId)
+            .reversed();
+
     private final NotificationRepository notificationRepository;
+    private final ArchivedNotificationRepository archivedNotificationRepository;
     private final UserRepository userRepository;
-    private final UserNotificationPreferencesRepository preferencesRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final NotificationPushRegistry pushRegistry;
+    private final UnreadCounters unreadCounters;
+
+    // Same setting as NotificationArchivalTask: only notifications older than this can be archived
+    @Value("${app.notifications.archive-after-days:30}")
+    private int archiveAfterDays;
 
 
-    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository, UserNotificationPreferencesRepository preferencesRepository) {
+    public NotificationService(NotificationRepository notificationRepository, ArchivedNotificationRepository archivedNotificationRepository, UserRepository userRepository, NotificationOutbox notificationOutbox, NotificationPushRegistry pushRegistry, UnreadCounters unreadCounters) {
         this.notificationRepository = notificationRepository;
+        this.archivedNotificationRepository = archivedNotificationRepository;
         this.userRepository = userRepository;
-        this.preferencesRepository = preferencesRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.pushRegistry = pushRegistry;
+        this.unreadCounters = unreadCounters;
     }
 
-    // ✅ Fetch Notifications for Logged-in User
-    public List<Notification> getUserNotifications() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    // ✅ Push channel for the logged-in user: new notifications and unread count changes as they happen
+    public SseEmitter subscribe() {
+        Long userId = currentUserId();
+        return pushRegistry.subscribe(userId, unreadCounters.notifications(userId));
+    }
 
-        return notificationRepository.findByRecipientOrderByCreatedAtDesc(user);
+    // ✅ Badge count for the logged-in user, from the materialized counter
+    public int getUnreadCount() {
+        return unreadCounters.notifications(currentUserId());
+    }
+
+    // ✅ Fetch one keyset page of the logged-in user's notifications, newest first
+    @Transactional(readOnly = true)
+    public NotificationPageDTO getUserNotifications(String cursor, int limit) {
+        Long userId = currentUserId();
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
+        PageRequest firstRows = PageRequest.of(0, pageSize + 1);
+
+        List<NotificationDTO> rows = notificationRepository.findPage(userId, after.getCreatedAt(), after.getId(), firstRows)
+                .stream()
+                .map(NotificationDTO::from)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // Everything archived is older than the archival cutoff, so the archive only needs reading
+        // once the page runs past it (or runs out of recent notifications)
+        LocalDateTime archivedBefore = LocalDateTime.now().minusDays(archiveAfterDays);
+        if (rows.size() <= pageSize || rows.get(rows.size() - 1).getCreatedAt().isBefore(archivedBefore)) {
+            archivedNotificationRepository.findPage(userId, after.getCreatedAt(), after.getId(), firstRows)
+                    .forEach(archived -> rows.add(NotificationDTO.from(archived)));
+            rows.sort(NEWEST_FIRST);
+        }
+
+        // Callers fetch pageSize + 1 rows; the extra row only tells us whether another page exists
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationDTO> page = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? cursorOf(page.get(page.size() - 1)) : null;
+        // The first page also tells the client where to fetch new notifications from
+        String sinceCursor = after == FeedCursor.start() && !page.isEmpty() ? cursorOf(page.get(0)) : null;
+        return new NotificationPageDTO(page, nextCursor, sinceCursor);
+    }
+
+    // ✅ Notifications created or regrouped since the cursor, oldest first - a cheap catch-up for clients
+    @Transactional(readOnly = true)
+    public NotificationPageDTO getNotificationsSince(String cursor, int limit) {
+        if (cursor == null || cursor.isBlank()) {
+            throw new IllegalArgumentException("A cursor is required");
+        }
+        Long userId = currentUserId();
+        FeedCursor since = FeedCursor.decode(cursor);
+        List<NotificationDTO> page = notificationRepository.findSince(userId, since.getCreatedAt(), since.getId(),
+                        PageRequest.of(0, clampPageSize(limit)))
+                .stream()
+                .map(NotificationDTO::from)
+                .collect(Collectors.toList());
+
+        // Nothing new keeps the client on the same cursor
+        String sinceCursor = page.isEmpty() ? cursor : cursorOf(page.get(page.size() - 1));
+        return new NotificationPageDTO(page, null, sinceCursor);
     }
 
     // ✅ Mark a notification as read
+    @Transactional
     public void markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        // Only the request that actually flips it takes it off the count
+        if (notificationRepository.markRead(notificationId) > 0) {
+            Long recipientId = notification.getRecipient().getId();
+            unreadCounters.adjustNotifications(recipientId, -1);
+            pushRegistry.publishUnreadDelta(recipientId, -1);
+        }
     }
 
-    // ✅ Utility: Create a new notification
+    // ✅ Utility: Create a new notification - queued, and written shortly after the caller's transaction commits
     public void createNotification(User recipient, String message) {
-        Notification notification = new Notification();
-        notification.setRecipient(recipient);
-        notification.setMessage(message);
-        notificationRepository.save(notification);
+        notificationOutbox.enqueue(recipient.getId(), message, null, null, null, null);
     }
 
+    // The recipient's preferences for this type are checked when the outbox delivers it
     public void createNotification(User recipient, String message, String notificationType,
                                    Long referenceId, Long secondaryReferenceId, String communityId) {
-        // Check user preferences before creating notification
-        if (!shouldSendNotification(recipient, notificationType)) {
-            return; // Don't create notification if user has disabled this type
-        }
+        createNotification(recipient.getId(), message, notificationType,
+                referenceId, secondaryReferenceId, communityId);
+    }
 
-        Notification notification = new Notification();
-        notification.setRecipient(recipient);
-        notification.setMessage(message);
-        notification.setNotificationType(notificationType);
-        notification.setReferenceId(referenceId);
-        notification.setSecondaryReferenceId(secondaryReferenceId);
-        notification.setCommunityId(communityId);
-        notificationRepository.save(notification);
+    // Likes, reposts and follows merge with earlier ones on the same topic ("alice and 3 others liked your post")
+    public void createGroupedNotification(User recipient, User actor, String action, String notificationType,
+                                          Long referenceId, Long secondaryReferenceId, String communityId) {
+        notificationOutbox.enqueueGrouped(recipient.getId(), actor.getUsername(), action, notificationType,
+                referenceId, secondaryReferenceId, communityId);
     }
 
-    // Update the markAllAsRead method in NotificationService.java
+    // For fan-outs that only have the recipients' ids
+    public void createNotification(Long recipientId, String message, String notificationType,
+                                   Long referenceId, Long secondaryReferenceId, String communityId) {
+        notificationOutbox.enqueue(recipientId, message, notificationType,
+                referenceId, secondaryReferenceId, communityId);
+    }
+
+    // ✅ Mark all of the logged-in user's notifications read in one UPDATE
+    @Transactional
     public void markAllAsRead() {
-        // Get current user using the same approach as in getUserNotifications
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = userRepository.findByEmail(auth.getName())
+        User currentUser = SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Find all unread notifications for the user
-        List<Notification> unreadNotifications = notificationRepository.findByRecipientAndReadFalse(currentUser);
-
-        // Mark each as read
-        for (Notification notification : unreadNotifications) {
-            notification.setRead(true);
-        }
-
-        // Save all updated notifications
-        notificationRepository.saveAll(unreadNotifications);
+        int marked = notificationRepository.markAllRead(currentUser.getId());
+        unreadCounters.adjustNotifications(currentUser.getId(), -marked);
+        pushRegistry.publishUnreadDelta(currentUser.getId(), -marked);
     }
 
 
@@ -93,63 +178,8 @@ public class NotificationService {
                 post.getCommunity().getSlug());
     }
 
-    // Check user preferences before creating notification
-    private boolean shouldSendNotification(User recipient, String notificationType) {
-        UserNotificationPreferences prefs = preferencesRepository.findByUserId(recipient.getId())
-                .orElse(null);
-
-        if (prefs == null) {
-            System.out.println("DEBUG: No notification preferences found for user " + recipient.getUsername() + ", using defaults");
-            return true; // Default to sending if no preferences found
-        }
-
-        boolean shouldSend = switch (notificationType) {
-            case "comment_created" -> {
-                boolean result = prefs.isNewCommentNotifications();
-                System.out.println("DEBUG: User " + recipient.getUsername() + " comment notifications enabled: " + result);
-                yield result;
-            }
-            case "mention" -> {
-                boolean result = prefs.isMentionNotifications();
-                System.out.println("DEBUG: User " + recipient.getUsername() + " mention notifications enabled: " + result);
-                yield result;
-            }
-            case "like" -> {
-                boolean result = prefs.isLikeNotifications();
-                System.out.println("DEBUG: User " + recipient.getUsername() + " like notifications enabled: " + result);
-                yield result;
-            }
-            case "follow", "follow_request" -> {
-                boolean result = prefs.isFollowNotifications();
-                System.out.println("DEBUG: User " + recipient.getUsername() + " follow notifications enabled: " + result);
-                yield result;
-            }
-            case "direct_message" -> {
-                boolean result = prefs.isDirectMessageNotifications();
-                System.out.println("DEBUG: User " + recipient.getUsername() + " direct message notifications enabled: " + result);
-                yield result;
-            }
-            case "community_update" -> {
-                boolean result = prefs.isCommunityUpdates();
-                System.out.println("DEBUG: User " + recipient.getUsername() + " community update notifications enabled: " + result);
-                yield result;
-            }
-            default -> {
-                System.out.println("DEBUG: Unknown notification type: " + notificationType + " for user " + recipient.getUsername() + ", defaulting to true");
-                yield true;
-            }
-        };
-
-        System.out.println("DEBUG: Final notification decision for user " + recipient.getUsername() +
-                ", type: " + notificationType + " = " + shouldSend);
-
-        return shouldSend;
-    }
-
     // Create comment notification
     public void createCommentNotification(User recipient, User commenter, Post post, Comment comment) {
-        if (!shouldSendNotification(recipient, "comment_created")) return;
-
         String message = commenter.getUsername() + " commented on your post";
         createNotification(
                 recipient,
@@ -163,10 +193,7 @@ public class NotificationService {
 
     // Create like notification
     public void createLikeNotification(User recipient, User liker, Object likedObject, boolean isComment) {
-        if (!shouldSendNotification(recipient, "like")) return;
-
         String objectType = isComment ? "comment" : "post";
-        String message = liker.getUsername() + " liked your " + objectType;
 
         Long primaryId = null;
         Long secondaryId = null;
@@ -184,13 +211,11 @@ public class NotificationService {
             communityId = post.getCommunity() != null ? post.getCommunity().getSlug() : null;
         }
 
-        createNotification(recipient, message, "like", primaryId, secondaryId, communityId);
+        createGroupedNotification(recipient, liker, " liked your " + objectType, "like", primaryId, secondaryId, communityId);
     }
 
     // Create mention notification
     public void createMentionNotification(User mentioned, User mentioner, Post post, Comment comment) {
-        if (!shouldSendNotification(mentioned, "mention")) return;
-
         String context = comment != null ? "a comment" : "a post";
         String message = mentioner.getUsername() + " mentioned you in " + context;
 
@@ -203,17 +228,34 @@ public class NotificationService {
 
     // Create follow notification
     public void createFollowNotification(User recipient, User follower) {
-        if (!shouldSendNotification(recipient, "follow")) return;
-
-        String message = follower.getUsername() + " started following you";
-        createNotification(recipient, message, "follow", follower.getId(), null, null);
+        createGroupedNotification(recipient, follower, " started following you", "follow", follower.getId(), null, null);
     }
 
     // Create follow request notification
     public void createFollowRequestNotification(User recipient, User requester) {
-        if (!shouldSendNotification(recipient, "follow_request")) return;
-
         String message = requester.getUsername() + " requested to follow you";
         createNotification(recipient, message, "follow_request", requester.getId(), null, null);
     }
+
+    private Long currentUserId() {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            return userId;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"))
+                .getId();
+    }
+
+    private static int clampPageSize(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static String cursorOf(NotificationDTO notification) {
+        return new FeedCursor(notification.getCreatedAt(), notification.getId()).encode();
+    }
 }
@@ -0,0 +1,100 @@
+package com.jgy36.PoliticalApp.service;
+
+import com.jgy36.PoliticalApp.dto.PostDTO;
+import com.jgy36.PoliticalApp.entity.MediaAttachment;
+import com.jgy36.PoliticalApp.entity.Post;
+import com.jgy36.PoliticalApp.repository.PostRepository;
+import com.jgy36.PoliticalApp.service.like.LikeWriteBuffer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a page of posts into PostDTOs with a fixed number of set-based queries.
+ * The PostDTO(Post) constructor walks every lazy collection on every post, which costs
+ * several queries per row; this loads each field for the whole page at once instead,
+ * so a page of 100 posts costs the same number of round trips as a page of 1.
+ */
+@Service
+public class PostHydrator {
+
+    private final PostRepository postRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
+
+    public PostHydrator(PostRepository postRepository, LikeWriteBuffer likeWriteBuffer) {
+        this.postRepository = postRepository;
+        this.likeWriteBuffer = likeWriteBuffer;
+    }
+
+    /**
+     * Hydrate posts whose author and original post are already loaded (e.g. via JOIN FETCH).
+     * The result keeps the order of the input list.
+     */
+    @Transactional(readOnly = true)
+    public List<PostDTO> hydrate(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, PostDTO> dtos = new LinkedHashMap<>();
+        for (Post post : posts) {
+            dtos.putIfAbsent(post.getId(), PostDTO.fromColumns(post));
+        }
+        List<Long> ids = new ArrayList<>(dtos.keySet());
+
+        Map<Long, List<String>> hashtags = new HashMap<>();
+        for (Object[] row : postRepository.findHashtagsByPostIds(ids)) {
+            hashtags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        hashtags.forEach((postId, tags) -> dtos.get(postId).setHashtags(tags));
+
+        Map<Long, List<PostDTO.MediaDTO>> media = new HashMap<>();
+        for (Object[] row : postRepository.findMediaByPostIds(ids)) {
+            media.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(PostDTO.MediaDTO.from((MediaAttachment) row[1]));
+        }
+        media.forEach((postId, attachments) -> dtos.get(postId).setMedia(attachments));
+
+        for (Object[] row : postRepository.findCommunitiesByPostIds(ids)) {
+            dtos.get((Long) row[0]).setCommunity((String) row[1], (String) row[2], (String) row[3]);
+        }
+
+        String email = currentUserEmail();
+        if (email != null) {
+            for (Long postId : postRepository.findLikedPostIds(ids, email)) {
+                dtos.get(postId).setIsLiked(true);
+            }
+            for (Long postId : postRepository.findSavedPostIds(ids, email)) {
+                dtos.get(postId).setIsSaved(true);
+            }
+        }
+
+        // Overlay likes still sitting in the write-behind buffer
+        dtos.forEach((postId, dto) -> {
+            long delta = likeWriteBuffer.pendingDelta(postId);
+            if (delta != 0) {
+                dto.setLikes((int) Math.max(0, dto.getLikes() + delta));
+            }
+            Boolean pending = email != null ? likeWriteBuffer.pendingState(postId, email) : null;
+            if (pending != null) {
+                dto.setIsLiked(pending);
+            }
+        });
+
+        return posts.stream()
+                .map(post -> dtos.get(post.getId()))
+                .collect(Collectors.toList());
+    }
+
+    private String currentUserEmail() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
@@ -1,9 +1,20 @@
 package com.jgy36.PoliticalApp.service;
 
+import com.jgy36.PoliticalApp.dto.FeedCursor;
+import com.jgy36.PoliticalApp.dto.FeedPageDTO;
 import com.jgy36.PoliticalApp.dto.PostDTO;
 import com.jgy36.PoliticalApp.entity.*;
 import com.jgy36.PoliticalApp.repository.*;
+import com.jgy36.PoliticalApp.service.feed.KWayFeedMerger;
+import com.jgy36.PoliticalApp.service.autocomplete.AutocompleteService;
+import com.jgy36.PoliticalApp.service.cache.QueryResultCache;
+import com.jgy36.PoliticalApp.service.like.LikeWriteBuffer;
+import com.jgy36.PoliticalApp.service.search.PostSearchIndex;
+import com.jgy36.PoliticalApp.service.trending.TrendingHashtagService;
+import com.jgy36.PoliticalApp.utils.ContentTokenizer;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,13 +29,15 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class PostService {
 
+    // Default and maximum page sizes for keyset-paginated feeds
+    public static final int DEFAULT_FEED_PAGE_SIZE = 20;
+    public static final int MAX_FEED_PAGE_SIZE = 100;
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final HashtagRepository hashtagRepository;
@@ -32,6 +45,13 @@ public class PostService {
     private final CommunityRepository communityRepository;
     private final PostLikeRepository postLikeRepository;
     private final NotificationService notificationService;
+    private final TimelineService timelineService;
+    private final PostHydrator postHydrator;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final TrendingHashtagService trendingHashtagService;
+    private final PostSearchIndex postSearchIndex;
+    private final AutocompleteService autocompleteService;
+    private final QueryResultCache queryResultCache;
     @Autowired
     private LikeService likeService;
 
@@ -42,7 +62,14 @@ public class PostService {
             CommentRepository commentRepository,
             CommunityRepository communityRepository,
             PostLikeRepository postLikeRepository,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            TimelineService timelineService,
+            PostHydrator postHydrator,
+            LikeWriteBuffer likeWriteBuffer,
+            TrendingHashtagService trendingHashtagService,
+            PostSearchIndex postSearchIndex,
+            AutocompleteService autocompleteService,
+            QueryResultCache queryResultCache) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.hashtagRepository = hashtagRepository;
@@ -50,32 +77,84 @@ public class PostService {
         this.communityRepository = communityRepository;
         this.postLikeRepository = postLikeRepository;
         this.notificationService = notificationService;
+        this.timelineService = timelineService;
+        this.postHydrator = postHydrator;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.trendingHashtagService = trendingHashtagService;
+        this.postSearchIndex = postSearchIndex;
+        this.autocompleteService = autocompleteService;
+        this.queryResultCache = queryResultCache;
     }
 
+    // ✅ "For you" feed - one keyset page of all posts, newest first
+    @Transactional(readOnly = true)
+    public FeedPageDTO getForYouFeed(String cursor, int limit) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
+        List<Post> posts = postRepository.findFeedPage(
+                after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1));
+        return toFeedPage(posts, pageSize);
+    }
 
-    // ✅ Get all posts - Updated to use the new repository method that fetches original posts
-    public List<PostDTO> getAllPosts() {
-        // Use the new method that includes JOIN FETCH for original posts
-        List<Post> posts = postRepository.findAllWithOriginalPostOrderByCreatedAtDesc();
-        return posts.stream()
-                .map(PostDTO::new)
-                .collect(Collectors.toList());
+    // ✅ Get one page of posts from users that the given user follows
+    @Transactional(readOnly = true)
+    public FeedPageDTO getFollowingFeed(Long userId, String cursor, int limit) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
+
+        // Served from the materialized timeline when possible, otherwise straight from the database
+        List<Long> postIds = timelineService.readPostIds(userId, after, pageSize + 1);
+        List<Post> posts = postIds != null
+                ? findAllInOrder(postIds)
+                : postRepository.findFollowingFeedPage(
+                userId, after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1));
+        return toFeedPage(posts, pageSize);
     }
 
-    // ✅ Get posts from users that the current user follows
-    public List<PostDTO> getPostsFromFollowing(List<Long> followingIds) {
-        List<Post> posts = postRepository.findPostsFromFollowing(followingIds);
-        return posts.stream()
-                .map(PostDTO::new)
+    // Load posts by id, keeping the order of the ids and skipping posts that no longer exist
+    private List<Post> findAllInOrder(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Post> postsById = postRepository.findAllWithAuthorByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    // ✅ Get one page of posts from a single community
+    @Transactional(readOnly = true)
+    public FeedPageDTO getCommunityFeed(String communitySlug, String cursor, int limit) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
+        List<Post> posts = postRepository.findCommunityFeedPage(
+                communitySlug, after.getCreatedAt(), after.getId(), PageRequest.of(0, pageSize + 1));
+        return toFeedPage(posts, pageSize);
+    }
+
+    private int clampPageSize(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_FEED_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_FEED_PAGE_SIZE);
+    }
+
+    // Callers fetch pageSize + 1 rows; the extra row only tells us whether another page exists
+    private FeedPageDTO toFeedPage(List<Post> posts, int pageSize) {
+        boolean hasMore = posts.size() > pageSize;
+        List<Post> page = hasMore ? posts.subList(0, pageSize) : posts;
+        String nextCursor = hasMore ? FeedCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return new FeedPageDTO(postHydrator.hydrate(page), nextCursor);
+    }
+
     // ✅ Create a new post
     @Transactional
     public Post createPost(String content) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
+        User user = SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
 
         Post post = new Post();
@@ -83,77 +162,65 @@ public class PostService {
         post.setAuthor(user);
         post.setCreatedAt(LocalDateTime.now());
 
+        // Extract hashtags and mentions in one pass
+        ContentTokenizer.Tokens tokens = ContentTokenizer.tokenize(content);
+
         // Extract and save hashtags
-        Set<Hashtag> hashtags = extractHashtags(content);
+        Set<String> tags = tokens.getDistinctHashtags();
+        Set<Hashtag> hashtags = resolveHashtags(tags);
         for (Hashtag hashtag : hashtags) {
             post.addHashtag(hashtag);
         }
 
         // Save the post first to get an ID
         Post savedPost = postRepository.save(post);
+        timelineService.onPostCreated(user.getId(), savedPost.getId());
+        trendingHashtagService.recordTags(tags);
+        postSearchIndex.onPostSaved(savedPost.getId(), content);
+        queryResultCache.onPostContentChanged(content);
 
         // Detect mentions and create notifications
-        Matcher mentionMatcher = Pattern.compile("@(\\w+(?:-\\w+)*)").matcher(content);
-        while (mentionMatcher.find()) {
-            String mentionedUsername = mentionMatcher.group(1);
-            System.out.println("POST DEBUG: Found mention @" + mentionedUsername + " in post ID " + savedPost.getId());
-            userRepository.findByUsername(mentionedUsername).ifPresent(mentionedUser -> {
-                if (!mentionedUser.equals(user)) {
-                    System.out.println("POST DEBUG: Creating notification for user " + mentionedUser.getUsername());
-                    notificationService.createNotification(
-                            mentionedUser,
-                            user.getUsername() + " mentioned you in a post",
-                            "mention",
-                            savedPost.getId(),
-                            null,
-                            savedPost.getCommunity() != null ? savedPost.getCommunity().getSlug() : null
-                    );
-                } else {
-                    System.out.println("POST DEBUG: Not creating notification for self-mention");
-                }
-            });
-        }
+        notifyMentionedUsers(tokens.getDistinctMentions(), user, savedPost, " mentioned you in a post");
 
         return savedPost;
     }
 
-    // Method to extract hashtags from content
-    private Set<Hashtag> extractHashtags(String content) {
+    // Find or create the given hashtags (with # prefix) and count this use of each in one atomic upsert.
+    // Returns unloaded references - attaching them to a post needs only their ids
+    private Set<Hashtag> resolveHashtags(Collection<String> tags) {
         Set<Hashtag> hashtags = new HashSet<>();
-        if (content == null || content.isEmpty()) {
-            return hashtags;
+        for (Long hashtagId : hashtagRepository.upsertAndIncrement(tags)) {
+            hashtags.add(hashtagRepository.getReferenceById(hashtagId));
         }
+        autocompleteService.onHashtagsUsed(tags);
+        return hashtags;
+    }
 
-        Pattern pattern = Pattern.compile("#(\\w+)");
-        Matcher matcher = pattern.matcher(content);
-
-        while (matcher.find()) {
-            String tagText = "#" + matcher.group(1); // Include the # symbol
-            // Find or create hashtag
-            Hashtag hashtag = hashtagRepository.findByTag(tagText)
-                    .orElseGet(() -> {
-                        Hashtag newHashtag = new Hashtag(tagText);
-                        return hashtagRepository.save(newHashtag);
-                    });
-
-            // If it's an existing hashtag, increment the count
-            if (hashtag.getId() != null) {
-                hashtag.setCount(hashtag.getCount() + 1);
-                hashtagRepository.save(hashtag);
-            }
-
-            hashtags.add(hashtag);
+    // Notify each mentioned user (other than the author) using one lookup for all of them
+    private void notifyMentionedUsers(Collection<String> usernames, User author, Post post, String message) {
+        if (usernames.isEmpty()) {
+            return;
         }
 
-        return hashtags;
+        for (User mentionedUser : userRepository.findByUsernameIn(usernames)) {
+            if (!mentionedUser.equals(author)) {
+                notificationService.createNotification(
+                        mentionedUser,
+                        author.getUsername() + message,
+                        "mention",
+                        post.getId(),
+                        null,
+                        post.getCommunity() != null ? post.getCommunity().getSlug() : null
+                );
+            }
+        }
     }
 
     // ✅ Delete a post (only the author can delete their post)
     @Transactional
     public void deletePost(Long postId) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail);
 
         if (userOpt.isEmpty()) {
             throw new IllegalArgumentException("User not found");
@@ -172,18 +239,17 @@ public class PostService {
             throw new SecurityException("You are not allowed to delete this post.");
         }
 
-        // Remove hashtag associations first (update hashtag counts)
-        if (post.getHashtags() != null && !post.getHashtags().isEmpty()) {
-            for (Hashtag hashtag : new HashSet<>(post.getHashtags())) {
-                if (hashtag.getCount() > 0) {
-                    hashtag.setCount(hashtag.getCount() - 1);
-                    hashtagRepository.save(hashtag);
-                }
-                post.removeHashtag(hashtag);
-            }
+        // Update hashtag counts in one statement; the associations go with the post
+        hashtagRepository.decrementForPost(postId);
+
+        if (post.isRepost() && post.getOriginalPostId() != null) {
+            postRepository.decrementRepostCount(post.getOriginalPostId());
         }
 
         postRepository.delete(post);
+        timelineService.onPostDeleted(user.getId(), postId);
+        postSearchIndex.onPostDeleted(postId);
+        queryResultCache.onPostContentChanged(post.getContent());
     }
 
     // ✅ Like/Unlike a post
@@ -195,46 +261,25 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new NoSuchElementException("Post not found"));
 
-        // Initialize collections if null
-        if (post.getLikedUsers() == null) {
-            post.setLikedUsers(new HashSet<>());
-        }
-
-        // Check if PostLike already exists
-        Optional<PostLike> existingLike = postLikeRepository.findByPostAndUser(post, user);
-
-        if (existingLike.isPresent()) {
-            // Unlike: Remove the like
-            postLikeRepository.delete(existingLike.get());
-            post.getLikedUsers().remove(user);
-        } else {
-            // Like: Add the like
-            PostLike postLike = new PostLike();
-            postLike.setPost(post);
-            postLike.setUser(user);
-            postLikeRepository.save(postLike);
-
-            // Add to likedUsers collection
-            post.getLikedUsers().add(user);
-
-            // Create notification for post author (if it's not the same user)
-            if (!post.getAuthor().equals(user)) {
-                notificationService.createNotification(
-                        post.getAuthor(),
-                        user.getUsername() + " liked your post",
-                        "like",
-                        post.getId(),
-                        null,
-                        post.getCommunity() != null ? post.getCommunity().getSlug() : null
-                );
-            }
+        // Buffered - the like row and counter are written by the next LikeWriteBuffer flush
+        boolean liked = likeWriteBuffer.toggle(postId, user.getId(), userEmail,
+                () -> postRepository.isLikedByUser(postId, user.getId()));
+
+        // Create notification for post author (if it's not the same user)
+        if (liked && !post.getAuthor().equals(user)) {
+            notificationService.createGroupedNotification(
+                    post.getAuthor(),
+                    user,
+                    " liked your post",
+                    "like",
+                    post.getId(),
+                    null,
+                    post.getCommunity() != null ? post.getCommunity().getSlug() : null
+            );
         }
 
-        // Save the post with updated likes
-        Post savedPost = postRepository.save(post);
-
-        // Return the updated like count
-        return savedPost.getLikedUsers().size();
+        // Return the updated like count, including likes that haven't been flushed yet
+        return (int) Math.max(0, postRepository.findLikeCount(postId) + likeWriteBuffer.pendingDelta(postId));
     }
 
     // ✅ Get users who liked a post
@@ -286,16 +331,15 @@ public class PostService {
         // Ensure tag has # prefix
         String normalizedTag = tag.startsWith("#") ? tag : "#" + tag;
 
-        // Try to find hashtag entity
-        Optional<Hashtag> hashtagOpt = hashtagRepository.findByTag(normalizedTag);
-
-        if (hashtagOpt.isPresent()) {
-            // If hashtag exists, return its posts
-            return new ArrayList<>(hashtagOpt.get().getPosts());
-        } else {
-            // Otherwise search for posts containing the hashtag text
-            return postRepository.findByContentContainingIgnoreCase(normalizedTag);
-        }
+        // Only the ids are cached - entities can't outlive the session that loaded them
+        List<Long> postIds = queryResultCache.get(QueryResultCache.POSTS_BY_TAG, normalizedTag, 0, 0,
+                List.of(QueryResultCache.tagDependency(normalizedTag)), () -> List.copyOf(
+                        hashtagRepository.existsByTag(normalizedTag)
+                                // If hashtag exists, return its posts
+                                ? postRepository.findIdsByHashtag(normalizedTag)
+                                // Otherwise search for posts containing the hashtag text
+                                : postRepository.findIdsByContentContaining(normalizedTag)));
+        return new ArrayList<>(findAllInOrder(postIds));
     }
 
     // ✅ Get a post by ID
@@ -306,18 +350,16 @@ public class PostService {
 
     // ✅ Find posts by a specific user
     // Update this method in PostService.java
+    @Transactional(readOnly = true)
     public List<PostDTO> getPostsByUserId(Long userId) {
-        return postRepository.findByAuthorId(userId).stream()
-                .map(PostDTO::new)
-                .collect(Collectors.toList());
+        return postHydrator.hydrate(postRepository.findByAuthorId(userId));
     }
 
     // ✅ Create a post in a specific community
     @Transactional
     public Post createCommunityPost(String communityId, String content) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
+        User user = SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         Community community = communityRepository.findBySlug(communityId)
@@ -335,17 +377,18 @@ public class PostService {
         post.setCreatedAt(LocalDateTime.now());
 
         // Extract and save hashtags
-        Set<Hashtag> hashtags = extractHashtags(content);
+        Set<String> tags = ContentTokenizer.tokenize(content).getDistinctHashtags();
+        Set<Hashtag> hashtags = resolveHashtags(tags);
         for (Hashtag hashtag : hashtags) {
             post.addHashtag(hashtag);
         }
 
-        return postRepository.save(post);
-    }
-
-    // Get posts by community slug
-    public List<Post> getPostsByCommunitySlug(String slug) {
-        return postRepository.findByCommunitySlugOrderByCreatedAtDesc(slug);
+        Post savedPost = postRepository.save(post);
+        timelineService.onPostCreated(user.getId(), savedPost.getId());
+        trendingHashtagService.recordTags(tags);
+        postSearchIndex.onPostSaved(savedPost.getId(), content);
+        queryResultCache.onPostContentChanged(content);
+        return savedPost;
     }
 
     @Transactional(readOnly = true)
@@ -377,8 +420,7 @@ public class PostService {
     @Transactional
     public Post createRepost(String content, Long originalPostId) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
+        User user = SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
 
         // Find the original post
@@ -397,22 +439,15 @@ public class PostService {
         repost.setOriginalPostId(originalPostId);
         repost.setOriginalPost(originalPost);  // Set the direct reference to original post
 
-        // Optional: Copy hashtags from original post
-        if (originalPost.getHashtags() != null && !originalPost.getHashtags().isEmpty()) {
-            for (Hashtag hashtag : originalPost.getHashtags()) {
-                repost.addHashtag(hashtag);
-                // Update hashtag count
-                hashtag.setCount(hashtag.getCount() + 1);
-                hashtagRepository.save(hashtag);
-            }
+        // Copy hashtags from the original post, plus any new ones from the additional comment,
+        // and count them all in one upsert
+        Set<String> tags = new LinkedHashSet<>();
+        for (Hashtag hashtag : originalPost.getHashtags()) {
+            tags.add(hashtag.getTag());
         }
-
-        // Extract and save any new hashtags from the additional comment
-        Set<Hashtag> newHashtags = extractHashtags(content);
-        for (Hashtag hashtag : newHashtags) {
-            if (!repost.getHashtags().contains(hashtag)) {
-                repost.addHashtag(hashtag);
-            }
+        tags.addAll(ContentTokenizer.tokenize(content).getDistinctHashtags());
+        for (Hashtag hashtag : resolveHashtags(tags)) {
+            repost.addHashtag(hashtag);
         }
 
         System.out.println("🔄 Saving repost with explicit settings - isRepost: " + repost.isRepost() +
@@ -420,19 +455,23 @@ public class PostService {
 
         // Save the repost
         Post savedRepost = postRepository.save(repost);
+        timelineService.onPostCreated(user.getId(), savedRepost.getId());
+        trendingHashtagService.recordTags(tags);
+        postSearchIndex.onPostSaved(savedRepost.getId(), content);
+        queryResultCache.onPostContentChanged(content);
 
         // Increment the repost count on the original post
-        originalPost.setRepostCount(originalPost.getRepostCount() + 1);
-        postRepository.save(originalPost);
+        postRepository.incrementRepostCount(originalPostId);
 
         // Create notification for the original post author (add this)
         User originalAuthor = originalPost.getAuthor();
         if (!originalAuthor.getId().equals(user.getId())) { // Don't notify if reposting own post
-            String notificationMessage = user.getUsername() + " reposted your post: \"" +
+            String action = " reposted your post: \"" +
                     (originalPost.getContent().length() > 30 ?
                             originalPost.getContent().substring(0, 30) + "..." :
                             originalPost.getContent()) + "\"";
-            notificationService.createNotification(originalAuthor, notificationMessage);
+            notificationService.createGroupedNotification(originalAuthor, user, action, "repost",
+                    originalPostId, null, null);
         }
 
         System.out.println("🔄 Repost saved successfully - ID: " + savedRepost.getId() +
@@ -452,8 +491,7 @@ public class PostService {
     @Transactional
     public Post updatePost(Long postId, String content) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
+        User user = SecurityUtils.findUser(auth, userRepository::getReferenceById, userRepository::findByEmail)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
 
         Post post = postRepository.findById(postId)
@@ -465,83 +503,51 @@ public class PostService {
         }
 
         // Update the content
+        String oldContent = post.getContent();
         post.setContent(content);
 
         // Set the updatedAt timestamp
         post.setUpdatedAt(LocalDateTime.now());
 
-        // Extract and update hashtags
-        Set<Hashtag> oldHashtags = new HashSet<>(post.getHashtags());
+        // Remove old hashtags - counts first, while the old associations are still in the database
+        hashtagRepository.decrementForPost(postId);
+        post.getHashtags().clear();
 
-        // Remove old hashtags
-        for (Hashtag hashtag : oldHashtags) {
-            post.removeHashtag(hashtag);
-            // Update hashtag count
-            if (hashtag.getCount() > 0) {
-                hashtag.setCount(hashtag.getCount() - 1);
-                hashtagRepository.save(hashtag);
-            }
-        }
+        // Extract hashtags and mentions in one pass
+        ContentTokenizer.Tokens tokens = ContentTokenizer.tokenize(content);
 
         // Extract and save new hashtags
-        Set<Hashtag> newHashtags = extractHashtags(content);
+        Set<Hashtag> newHashtags = resolveHashtags(tokens.getDistinctHashtags());
         for (Hashtag hashtag : newHashtags) {
             post.addHashtag(hashtag);
         }
 
         // Save the updated post
         Post updatedPost = postRepository.save(post);
+        postSearchIndex.onPostSaved(postId, content);
+        queryResultCache.onPostContentChanged(oldContent, content);
 
         // Detect mentions and create notifications
-        Matcher mentionMatcher = Pattern.compile("@(\\w+(?:-\\w+)*)").matcher(content);
-        while (mentionMatcher.find()) {
-            String mentionedUsername = mentionMatcher.group(1);
-            System.out.println("POST DEBUG: Found mention @" + mentionedUsername + " in updated post ID " + updatedPost.getId());
-            userRepository.findByUsername(mentionedUsername).ifPresent(mentionedUser -> {
-                if (!mentionedUser.equals(user)) {
-                    System.out.println("POST DEBUG: Creating notification for user " + mentionedUser.getUsername());
-                    notificationService.createNotification(
-                            mentionedUser,
-                            user.getUsername() + " mentioned you in an updated post",
-                            "mention",
-                            updatedPost.getId(),
-                            null,
-                            updatedPost.getCommunity() != null ? updatedPost.getCommunity().getSlug() : null
-                    );
-                } else {
-                    System.out.println("POST DEBUG: Not creating notification for self-mention");
-                }
-            });
-        }
+        notifyMentionedUsers(tokens.getDistinctMentions(), user, updatedPost, " mentioned you in an updated post");
 
         return updatedPost;
     }
 
     /**
-     * Get posts from communities the user has joined
+     * Get one page of posts from communities the user has joined,
+     * merged across per-community cursors so no community is read past what the page needs
      */
-    public List<PostDTO> getPostsFromUserCommunities(User user) {
-        // Get communities the user is a member of
-        List<Community> userCommunities = communityRepository.findCommunitiesByMember(user);
-
-        if (userCommunities.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        List<Post> posts = new ArrayList<>();
-
-        // Collect posts from each community
-        for (Community community : userCommunities) {
-            posts.addAll(postRepository.findByCommunityOrderByCreatedAtDesc(community));
-        }
-
-        // Sort posts by creation time (most recent first)
-        posts.sort(Comparator.comparing(Post::getCreatedAt).reversed());
+    @Transactional(readOnly = true)
+    public FeedPageDTO getPostsFromUserCommunities(User user, String cursor, int limit) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
 
-        // Convert to DTOs
-        return posts.stream()
-                .map(post -> new PostDTO(post))
+        List<KWayFeedMerger.Source> sources = communityRepository.findCommunityIdsByMemberId(user.getId()).stream()
+                .map(communityId -> (KWayFeedMerger.Source) (from, count) -> postRepository.findCommunityFeedPageById(
+                        communityId, from.getCreatedAt(), from.getId(), PageRequest.of(0, count)))
                 .collect(Collectors.toList());
+
+        return toFeedPage(KWayFeedMerger.merge(sources, after, pageSize + 1), pageSize);
     }
 
     // Add this to PoliticalApp/src/main/java/com/jgy36/PoliticalApp/service/PostService.java
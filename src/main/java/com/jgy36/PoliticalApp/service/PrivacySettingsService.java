@@ -5,6 +5,7 @@ import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.entity.UserPrivacySettings;
 import com.jgy36.PoliticalApp.repository.UserPrivacySettingsRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -41,6 +42,11 @@ public class PrivacySettingsService {
 
     private Long getCurrentUserId() {
         logInfo("Getting current user ID from authentication context");
+        // Carried on the principal for token-authenticated requests
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            return userId;
+        }
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String email = authentication.getName();
@@ -7,11 +7,23 @@ import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.repository.CommunityRepository;
 import com.jgy36.PoliticalApp.repository.PostRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.autocomplete.AutocompleteService;
+import com.jgy36.PoliticalApp.service.cache.QueryResultCache;
+import com.jgy36.PoliticalApp.service.search.PostSearchIndex;
+import com.jgy36.PoliticalApp.service.search.TextAnalyzer;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -20,140 +32,221 @@ public class SearchService {
 
     private static final Logger logger = Logger.getLogger(SearchService.class.getName());
 
+    // Maximum number of results per type and page
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final CommunityRepository communityRepository;
     private final PostRepository postRepository;
+    private final PostSearchIndex postSearchIndex;
+    private final AutocompleteService autocompleteService;
+    private final QueryResultCache queryResultCache;
+    // Runs the per-type searches of searchAll. When it's saturated the request thread runs
+    // the search itself, which slows that request down rather than failing it.
+    private final ThreadPoolExecutor searchExecutor;
+    private final long deadlineMillis;
 
     @Autowired
     public SearchService(
             UserRepository userRepository,
             CommunityRepository communityRepository,
-            PostRepository postRepository) {
+            PostRepository postRepository,
+            PostSearchIndex postSearchIndex,
+            AutocompleteService autocompleteService,
+            QueryResultCache queryResultCache,
+            @Value("${app.search.threads:16}") int threads,
+            @Value("${app.search.deadline-ms:800}") long deadlineMillis) {
         this.userRepository = userRepository;
         this.communityRepository = communityRepository;
         this.postRepository = postRepository;
+        this.postSearchIndex = postSearchIndex;
+        this.autocompleteService = autocompleteService;
+        this.queryResultCache = queryResultCache;
+        this.deadlineMillis = deadlineMillis;
+        this.searchExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4), new CustomizableThreadFactory("search-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdownNow();
     }
 
     /**
-     * Search for results across all supported types
+     * Search for results across all supported types.
+     * The per-type searches run concurrently, each capped at one page; any type that hasn't
+     * answered by the deadline is left out, so the response takes as long as the slowest type
+     * (at most app.search.deadline-ms) rather than the sum of all of them.
      */
-    public List<SearchResultDTO> searchAll(String query) {
+    public List<SearchResultDTO> searchAll(String query, int page, int size) {
         logger.info("Performing search across all types for query: " + query);
-        List<SearchResultDTO> results = new ArrayList<>();
-
-        try {
-            // Search users
-            results.addAll(searchUsers(query));
-
-            // Search communities
-            results.addAll(searchCommunities(query));
+        int pageSize = clampPageSize(size);
 
-            // Search posts (hashtags can be derived from posts)
-            results.addAll(searchPosts(query));
+        // Users, communities, then posts (hashtags can be derived from posts)
+        // Plain futures from submit(), so cancelling one interrupts its search thread
+        List<Future<List<SearchResultDTO>>> searches = List.of(
+                searchExecutor.submit(() -> searchUsers(query, page, pageSize)),
+                searchExecutor.submit(() -> searchCommunities(query, page, pageSize)),
+                searchExecutor.submit(() -> searchPosts(query, page, pageSize)));
 
-            // Search hashtags directly if you have a dedicated repository
-            // results.addAll(searchHashtags(query));
-
-        } catch (Exception e) {
-            logger.severe("Error in searchAll: " + e.getMessage());
-            e.printStackTrace();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        List<List<SearchResultDTO>> perType = new ArrayList<>(searches.size());
+        for (Future<List<SearchResultDTO>> search : searches) {
+            try {
+                perType.add(search.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                search.cancel(true);
+                logger.warning("Search type missed the " + deadlineMillis + " ms deadline for query: " + query);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                logger.severe("Error in searchAll: " + e.getCause().getMessage());
+            }
         }
 
-        return results;
+        return interleave(perType, pageSize);
     }
 
     /**
-     * Search by specific type
+     * Search by specific type.
+     * Results are cached per normalized query and page until a write they depend on commits.
      */
-    public List<SearchResultDTO> searchByType(String query, String type) {
+    public List<SearchResultDTO> searchByType(String query, String type, int page, int size) {
         logger.info("Performing search for type: " + type + " with query: " + query);
+        String kind = type.toLowerCase(Locale.ROOT);
+        int pageNumber = Math.max(page, 0);
+        int pageSize = clampPageSize(size);
+        String namespace = QueryResultCache.SEARCH + ":" + kind;
 
-        return switch (type.toLowerCase()) {
-            case "user" -> searchUsers(query);
-            case "community" -> searchCommunities(query);
-            case "post" -> searchPosts(query);
-            case "hashtag" -> searchHashtags(query);
-            default -> new ArrayList<>();
-        };
+        try {
+            return switch (kind) {
+                // Both match ignoring case
+                case "user" -> queryResultCache.get(namespace, query.toLowerCase(Locale.ROOT), pageNumber, pageSize,
+                        List.of(QueryResultCache.USERS), () -> searchUsers(query, pageNumber, pageSize));
+                case "community" -> queryResultCache.get(namespace, query.toLowerCase(Locale.ROOT), pageNumber, pageSize,
+                        List.of(QueryResultCache.COMMUNITIES), () -> searchCommunities(query, pageNumber, pageSize));
+                case "post" -> cachedSearchPosts(namespace, query, pageNumber, pageSize);
+                // Not lowercased - the result echoes the query as typed
+                case "hashtag" -> queryResultCache.get(namespace, query, 0, 0,
+                        List.of(QueryResultCache.tagDependency("#" + stripHash(query))), () -> searchHashtags(query));
+                default -> new ArrayList<>();
+            };
+        } catch (Exception e) {
+            logger.severe("Error searching " + kind + "s: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Keyed by the analyzed terms, so queries differing only in case or punctuation share an entry;
+    // a post can only start or stop matching if it contains every one of them
+    private List<SearchResultDTO> cachedSearchPosts(String namespace, String query, int page, int pageSize) {
+        List<String> terms = TextAnalyzer.queryTerms(query);
+        if (!postSearchIndex.isReady() || terms.isEmpty()) {
+            return searchPosts(query, page, pageSize);
+        }
+        List<String> dependencies = terms.stream().map(QueryResultCache::termDependency).collect(Collectors.toList());
+        return queryResultCache.get(namespace, String.join(" ", terms), page, pageSize,
+                dependencies, () -> searchPosts(query, page, pageSize));
     }
 
     /**
      * Search for users matching the query
      */
-    private List<SearchResultDTO> searchUsers(String query) {
-        try {
-            List<User> users = userRepository.findByUsernameContainingIgnoreCaseOrDisplayNameContainingIgnoreCase(
-                    query, query);
-
-            return users.stream()
-                    .map(user -> {
-                        SearchResultDTO result = new SearchResultDTO();
-                        result.setId(user.getId().toString());
-                        result.setType("user");
-                        result.setName(user.getDisplayName() != null ? user.getDisplayName() : user.getUsername());
-                        result.setUsername(user.getUsername());
-                        result.setBio(user.getBio());
-
-                        // Use the repository method to get followers count
-                        int followersCount = userRepository.countFollowers(user.getId());
-                        result.setFollowersCount(followersCount);
-
-                        return result;
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.severe("Error searching users: " + e.getMessage());
-            return new ArrayList<>();
+    private List<SearchResultDTO> searchUsers(String query, int page, int size) {
+        List<User> users = userRepository.findByUsernameContainingIgnoreCaseOrDisplayNameContainingIgnoreCase(
+                query, query, PageRequest.of(Math.max(page, 0), size));
+
+        // Nothing contains the query as typed - look for similar names instead (misspellings)
+        if (users.isEmpty() && page <= 0) {
+            return autocompleteService.fuzzyUsers(query, size);
+        }
+
+        // Follower counts for the whole page in one grouped query
+        Map<Long, Integer> followers = new HashMap<>();
+        if (!users.isEmpty()) {
+            List<Long> ids = users.stream().map(User::getId).collect(Collectors.toList());
+            for (Object[] row : userRepository.countFollowersByUserIds(ids)) {
+                followers.put((Long) row[0], ((Number) row[1]).intValue());
+            }
         }
+
+        return users.stream()
+                .map(user -> {
+                    SearchResultDTO result = new SearchResultDTO();
+                    result.setId(user.getId().toString());
+                    result.setType("user");
+                    result.setName(user.getDisplayName() != null ? user.getDisplayName() : user.getUsername());
+                    result.setUsername(user.getUsername());
+                    result.setBio(user.getBio());
+
+                    result.setFollowersCount(followers.getOrDefault(user.getId(), 0));
+
+                    return result;
+                })
+                .collect(Collectors.toList());
     }
 
     /**
      * Search for communities matching the query
      */
-    private List<SearchResultDTO> searchCommunities(String query) {
-        try {
-            List<Community> communities = communityRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                    query, query);
-
-            return communities.stream()
-                    .map(community -> {
-                        SearchResultDTO result = new SearchResultDTO();
-                        result.setId(community.getSlug());
-                        result.setType("community");
-                        result.setName(community.getName());
-                        result.setDescription(community.getDescription());
-                        result.setMembers(community.getMembers().size());
-                        return result;
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.severe("Error searching communities: " + e.getMessage());
-            return new ArrayList<>();
+    private List<SearchResultDTO> searchCommunities(String query, int page, int size) {
+        List<Community> communities = communityRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
+                query, query, PageRequest.of(Math.max(page, 0), size));
+
+        // Nothing contains the query as typed - look for similar names instead (misspellings)
+        if (communities.isEmpty() && page <= 0) {
+            return autocompleteService.fuzzyCommunities(query, size);
+        }
+
+        // Member counts for the whole page in one grouped query
+        Map<Long, Integer> members = new HashMap<>();
+        if (!communities.isEmpty()) {
+            List<Long> ids = communities.stream().map(Community::getId).collect(Collectors.toList());
+            for (Object[] row : communityRepository.countMembersByCommunityIds(ids)) {
+                members.put((Long) row[0], ((Number) row[1]).intValue());
+            }
         }
+
+        return communities.stream()
+                .map(community -> {
+                    SearchResultDTO result = new SearchResultDTO();
+                    result.setId(community.getSlug());
+                    result.setType("community");
+                    result.setName(community.getName());
+                    result.setDescription(community.getDescription());
+                    result.setMembers(members.getOrDefault(community.getId(), 0));
+                    return result;
+                })
+                .collect(Collectors.toList());
     }
 
     /**
-     * Search for posts matching the query
+     * Search for posts containing every word of the query, best match first
      */
-    private List<SearchResultDTO> searchPosts(String query) {
-        try {
-            List<Post> posts = postRepository.findByContentContainingIgnoreCase(query);
-
-            return posts.stream()
-                    .map(post -> {
-                        SearchResultDTO result = new SearchResultDTO();
-                        result.setId(post.getId().toString());
-                        result.setType("post");
-                        result.setContent(post.getContent());
-                        result.setAuthor(post.getAuthor().getUsername());
-                        result.setCreatedAt(post.getCreatedAt().toString());
-                        return result;
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.severe("Error searching posts: " + e.getMessage());
-            return new ArrayList<>();
+    private List<SearchResultDTO> searchPosts(String query, int page, int pageSize) {
+        List<Post> posts;
+        if (postSearchIndex.isReady()) {
+            List<Long> ids = postSearchIndex.search(query, Math.max(page, 0) * pageSize, pageSize).getIds();
+            posts = loadInOrder(ids);
+        } else {
+            // Index still building after startup; authors are fetched here, since searchAll
+            // maps the results on a search thread with no session open
+            posts = postRepository.findWithAuthorByContentContaining(query, PageRequest.of(Math.max(page, 0), pageSize));
         }
+
+        return posts.stream()
+                .map(post -> {
+                    SearchResultDTO result = new SearchResultDTO();
+                    result.setId(post.getId().toString());
+                    result.setType("post");
+                    result.setContent(post.getContent());
+                    result.setAuthor(post.getAuthor().getUsername());
+                    result.setCreatedAt(post.getCreatedAt().toString());
+                    return result;
+                })
+                .collect(Collectors.toList());
     }
 
     /**
@@ -161,29 +254,72 @@ public class SearchService {
      * Note: This is a simplified implementation that extracts hashtags from posts
      */
     private List<SearchResultDTO> searchHashtags(String query) {
-        try {
-            // Remove # if present in the query
-            String cleanQuery = query.startsWith("#") ? query.substring(1) : query;
-
-            // Find posts with the hashtag
-            List<Post> posts = postRepository.findByContentContainingIgnoreCase("#" + cleanQuery);
-
-            // Only return a result if we found any posts
-            if (!posts.isEmpty()) {
-                SearchResultDTO result = new SearchResultDTO();
-                result.setId(cleanQuery);
-                result.setType("hashtag");
-                result.setName("#" + cleanQuery);
-                result.setTag("#" + cleanQuery);
-                result.setPostCount(posts.size());
-                result.setCount(posts.size());
-                return List.of(result);
+        // Remove # if present in the query
+        String cleanQuery = stripHash(query);
+
+        // Count posts with the hashtag
+        int postCount = postSearchIndex.isReady()
+                ? postSearchIndex.countPostsWithHashtag(cleanQuery)
+                : postRepository.findByContentContainingIgnoreCase("#" + cleanQuery).size();
+
+        // Only return a result if we found any posts
+        if (postCount > 0) {
+            SearchResultDTO result = new SearchResultDTO();
+            result.setId(cleanQuery);
+            result.setType("hashtag");
+            result.setName("#" + cleanQuery);
+            result.setTag("#" + cleanQuery);
+            result.setPostCount(postCount);
+            result.setCount(postCount);
+            return List.of(result);
+        }
+
+        return new ArrayList<>();
+    }
+
+    // Take one result from each type in turn until the page is full
+    private static List<SearchResultDTO> interleave(List<List<SearchResultDTO>> perType, int size) {
+        List<SearchResultDTO> merged = new ArrayList<>(size);
+        for (int i = 0; merged.size() < size; i++) {
+            boolean any = false;
+            for (List<SearchResultDTO> results : perType) {
+                if (i < results.size() && merged.size() < size) {
+                    merged.add(results.get(i));
+                    any = true;
+                }
             }
+            if (!any) {
+                break;
+            }
+        }
+        return merged;
+    }
 
+    private static String stripHash(String query) {
+        return query.startsWith("#") ? query.substring(1) : query;
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Load posts with their authors in one query, in the order of the given ids
+    private List<Post> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
             return new ArrayList<>();
-        } catch (Exception e) {
-            logger.severe("Error searching hashtags: " + e.getMessage());
-            return new ArrayList<>();
         }
+        Map<Long, Post> byId = new HashMap<>();
+        for (Post post : postRepository.findAllWithAuthorByIdIn(ids)) {
+            byId.put(post.getId(), post);
+        }
+        List<Post> posts = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Post post = byId.get(id);
+            // Deleted between the index lookup and the load
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return posts;
     }
 }
@@ -6,6 +6,7 @@ import com.jgy36.PoliticalApp.entity.UserSession;
 import com.jgy36.PoliticalApp.repository.UserRepository;
 import com.jgy36.PoliticalApp.repository.UserSecuritySettingsRepository;
 import com.jgy36.PoliticalApp.repository.UserSessionRepository;
+import com.jgy36.PoliticalApp.utils.SecurityUtils;
 import org.jboss.aerogear.security.otp.Totp;
 import org.jboss.aerogear.security.otp.api.Base32;
 import org.slf4j.Logger;
@@ -48,6 +49,11 @@ public class SecurityService {
      * Get the current authenticated user's ID
      */
     private Long getCurrentUserId() {
+        // Carried on the principal for token-authenticated requests
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId != null) {
+            return userId;
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         User user = userRepository.findByEmail(email)
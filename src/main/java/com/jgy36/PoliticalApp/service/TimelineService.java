@@ -0,0 +1,173 @@
+package com.jgy36.PoliticalApp.service;
+
+import com.jgy36.PoliticalApp.dto.FeedCursor;
+import com.jgy36.PoliticalApp.repository.FollowRepository;
+import com.jgy36.PoliticalApp.repository.PostRepository;
+import com.jgy36.PoliticalApp.service.timeline.TimelinePage;
+import com.jgy36.PoliticalApp.service.timeline.TimelineStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Materialized home timelines for the "following" feed (fan-out on write).
+ * New posts are pushed into each follower's bounded timeline when they are created, so
+ * reading a page costs the same no matter how many accounts the reader follows.
+ * Authors with more than app.timeline.fanout-threshold followers are not fanned out;
+ * their posts are pulled and merged in at read time instead.
+ */
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private final TimelineStore timelineStore;
+    private final PostRepository postRepository;
+    private final FollowRepository followRepository;
+    private final int capacity;
+    private final int fanoutThreshold;
+
+    public TimelineService(
+            TimelineStore timelineStore,
+            PostRepository postRepository,
+            FollowRepository followRepository,
+            @Value("${app.timeline.capacity:500}") int capacity,
+            @Value("${app.timeline.fanout-threshold:5000}") int fanoutThreshold) {
+        this.timelineStore = timelineStore;
+        this.postRepository = postRepository;
+        this.followRepository = followRepository;
+        this.capacity = capacity;
+        this.fanoutThreshold = fanoutThreshold;
+    }
+
+    /**
+     * Read up to count post ids older than the cursor from the user's home timeline, newest first.
+     *
+     * @return the ids, or null if the caller should query the database directly
+     * (the page runs past the materialized window, or the store is unavailable)
+     */
+    public List<Long> readPostIds(Long userId, FeedCursor after, int count) {
+        try {
+            TimelinePage page = timelineStore.read(userId, after.getId(), count);
+            if (page == null) {
+                List<Long> postIds = postRepository.findFollowingFeedPostIds(userId, PageRequest.of(0, capacity));
+                timelineStore.replace(userId, postIds);
+                page = TimelinePage.slice(postIds, after.getId(), count, postIds.size() >= capacity);
+            }
+
+            // Ran off the end of the stored window - older posts are only in the database
+            if (page.getPostIds().size() < count && page.isTruncated()) {
+                return null;
+            }
+            return mergeHighFanoutAuthors(userId, page.getPostIds(), after, count);
+        } catch (DataAccessException e) {
+            logger.warn("Timeline store unavailable, reading feed for user {} from the database", userId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Push a newly created post into its author's followers' timelines once the transaction commits
+     */
+    public void onPostCreated(Long authorId, Long postId) {
+        afterCommit(() -> fanOut(authorId, postId));
+    }
+
+    /**
+     * Remove a deleted post from its author's followers' timelines once the transaction commits
+     */
+    public void onPostDeleted(Long authorId, Long postId) {
+        afterCommit(() -> {
+            try {
+                timelineStore.remove(followRepository.findFollowerIdsByFollowingId(authorId), postId);
+            } catch (DataAccessException e) {
+                logger.warn("Failed to remove post {} from timelines", postId, e);
+            }
+        });
+    }
+
+    /**
+     * A user followed or unfollowed someone; rebuild their timeline on the next read
+     */
+    public void onFollowGraphChanged(Long userId) {
+        afterCommit(() -> {
+            try {
+                timelineStore.evict(userId);
+            } catch (DataAccessException e) {
+                logger.warn("Failed to evict timeline for user {}", userId, e);
+            }
+        });
+    }
+
+    private void fanOut(Long authorId, Long postId) {
+        try {
+            int followers = followRepository.countFollowersByFollowingId(authorId);
+            boolean highFanout = followers >= fanoutThreshold;
+            timelineStore.setHighFanoutAuthor(authorId, highFanout);
+
+            if (!highFanout && followers > 0) {
+                timelineStore.push(followRepository.findFollowerIdsByFollowingId(authorId), postId);
+            }
+        } catch (DataAccessException e) {
+            // Missed timelines catch up when they are next rebuilt
+            logger.warn("Failed to fan out post {} from author {}", postId, authorId, e);
+        }
+    }
+
+    // Merge in posts from followed high-fanout authors, which were never pushed
+    private List<Long> mergeHighFanoutAuthors(Long userId, List<Long> postIds, FeedCursor after, int count) {
+        Set<Long> highFanoutAuthors = timelineStore.getHighFanoutAuthors();
+        if (highFanoutAuthors.isEmpty()) {
+            return postIds;
+        }
+
+        List<Long> followed = followRepository.findFollowingIdsAmong(userId, highFanoutAuthors);
+        if (followed.isEmpty()) {
+            return postIds;
+        }
+
+        List<Long> pulled = postRepository.findPostIdsByAuthorsBefore(followed, after.getId(), PageRequest.of(0, count));
+        return mergeNewestFirst(postIds, pulled, count);
+    }
+
+    // Both inputs are sorted newest first; a post can appear in both if it predates a rebuild
+    private static List<Long> mergeNewestFirst(List<Long> left, List<Long> right, int count) {
+        List<Long> merged = new ArrayList<>(count);
+        int i = 0;
+        int j = 0;
+        while (merged.size() < count && (i < left.size() || j < right.size())) {
+            long next;
+            if (j >= right.size() || (i < left.size() && left.get(i) >= right.get(j))) {
+                next = left.get(i++);
+            } else {
+                next = right.get(j++);
+            }
+            if (merged.isEmpty() || merged.get(merged.size() - 1) != next) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,59 +1,68 @@
 package com.jgy36.PoliticalApp.service;
 
+import com.jgy36.PoliticalApp.service.blacklist.RevokedTokenFilter;
+import com.jgy36.PoliticalApp.utils.TokenDigest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Revoked (logged out) tokens, stored in Redis under the SHA-256 of the token with a TTL of the
+ * token's remaining lifetime, so Redis expires them by itself. Checks go through the local
+ * RevokedTokenFilter first and only reach Redis for tokens it can't rule out.
+ */
 @Service
 public class TokenBlacklistService {
     private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
-    private static final String BLACKLIST_PREFIX = "blacklist:";
+    private static final String BLACKLIST_PREFIX = RevokedTokenFilter.KEY_PREFIX;
+    private static final int SCAN_BATCH = 1000;
     private final StringRedisTemplate redisTemplate;
+    private final RevokedTokenFilter revokedTokenFilter;
 
     @Autowired
-    public TokenBlacklistService(StringRedisTemplate redisTemplate) {
+    public TokenBlacklistService(StringRedisTemplate redisTemplate, RevokedTokenFilter revokedTokenFilter) {
         this.redisTemplate = redisTemplate;
+        this.revokedTokenFilter = revokedTokenFilter;
     }
 
     public void blacklistToken(String token, long expirationMillis) {
         try {
             // Ensure meaningful expiration time
             long safeExpirationMillis = Math.max(expirationMillis, 60000); // Minimum 1 minute
-            String blacklistKey = BLACKLIST_PREFIX + token;
-
-            logger.info("🚫 Blacklisting Token: {}", token);
-            logger.info("🕒 Token Expiration Time: {} ms", safeExpirationMillis);
+            String digest = TokenDigest.sha256Hex(token);
 
             // Store blacklisted token with expiration
             redisTemplate.opsForValue().set(
-                    blacklistKey,
+                    BLACKLIST_PREFIX + digest,
                     "blacklisted",
                     safeExpirationMillis,
                     TimeUnit.MILLISECONDS
             );
+            revokedTokenFilter.publish(digest);
 
-            // Verify token was added to blacklist
-            Boolean exists = redisTemplate.hasKey(blacklistKey);
-            logger.info("✅ Token Blacklist Confirmation: {}", exists);
+            logger.info("🚫 Blacklisted token {} for {} ms", digest.substring(0, 12), safeExpirationMillis);
         } catch (Exception e) {
             logger.error("❌ Error blacklisting token", e);
         }
     }
 
     public boolean isTokenBlacklisted(String token) {
-        try {
-            String blacklistKey = BLACKLIST_PREFIX + token;
-            boolean isBlacklisted = Boolean.TRUE.equals(redisTemplate.hasKey(blacklistKey));
-
-            logger.info("🔍 Token Blacklist Check:");
-            logger.info("🔑 Blacklist Key: {}", blacklistKey);
-            logger.info("🚫 Is Blacklisted: {}", isBlacklisted);
+        String digest = TokenDigest.sha256Hex(token);
+        if (!revokedTokenFilter.mightBeRevoked(digest)) {
+            return false;
+        }
 
+        try {
+            boolean isBlacklisted = Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + digest));
+            logger.debug("🔍 Token {} blacklisted: {}", digest.substring(0, 12), isBlacklisted);
             return isBlacklisted;
         } catch (Exception e) {
             logger.error("❌ Error checking token blacklist", e);
@@ -61,24 +70,37 @@ public class TokenBlacklistService {
         }
     }
 
+    // The local filter keeps reporting a possible hit until its next rebuild, which only costs a Redis lookup
     public void removeFromBlacklist(String token) {
         try {
-            String blacklistKey = BLACKLIST_PREFIX + token;
-            Boolean deleted = redisTemplate.delete(blacklistKey);
-            logger.info("🗑️ Removed Token from Blacklist: {}, Deleted: {}", token, deleted);
+            String digest = TokenDigest.sha256Hex(token);
+            Boolean deleted = redisTemplate.delete(BLACKLIST_PREFIX + digest);
+            logger.info("🗑️ Removed token {} from blacklist, deleted: {}", digest.substring(0, 12), deleted);
         } catch (Exception e) {
             logger.error("❌ Error removing token from blacklist", e);
         }
     }
 
+    /**
+     * Entries expire on their own; this only removes entries that somehow have no TTL.
+     * Walks the keys with SCAN rather than KEYS, so Redis isn't blocked while it runs.
+     */
     public void clearOldBlacklistedTokens() {
         try {
-            // Implementation depends on your Redis configuration
-            // This is a basic example and might need adjustment based on your specific Redis setup
-            Set<String> blacklistedKeys = redisTemplate.keys(BLACKLIST_PREFIX + "*");
-            if (blacklistedKeys != null && !blacklistedKeys.isEmpty()) {
-                redisTemplate.delete(blacklistedKeys);
-                logger.info("🧹 Cleared {} old blacklisted tokens", blacklistedKeys.size());
+            List<String> stale = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(BLACKLIST_PREFIX + "*").count(SCAN_BATCH).build();
+            try (Cursor<String> keys = redisTemplate.scan(options)) {
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    Long ttl = redisTemplate.getExpire(key);
+                    if (ttl != null && ttl == -1) {
+                        stale.add(key);
+                    }
+                }
+            }
+            if (!stale.isEmpty()) {
+                redisTemplate.delete(stale);
+                logger.info("🧹 Cleared {} blacklisted tokens without an expiry", stale.size());
             }
         } catch (Exception e) {
             logger.error("❌ Error clearing old blacklisted tokens", e);
@@ -3,6 +3,8 @@ package com.jgy36.PoliticalApp.service;
 import com.jgy36.PoliticalApp.entity.Role;
 import com.jgy36.PoliticalApp.entity.User;
 import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.principal.AuthenticatedUser;
+import com.jgy36.PoliticalApp.service.principal.PrincipalCache;
 import com.jgy36.PoliticalApp.utils.OAuth2Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,30 +30,50 @@ public class UserDetailsServiceImpl implements UserDetailsService, OAuth2UserSer
 
     private final UserRepository userRepository;
     private final OAuth2Util oAuth2Util;
+    private final PrincipalCache principalCache;
 
     // We'll create our own PasswordEncoder here instead of injecting from SecurityConfig
     private final PasswordEncoder passwordEncoder;
 
     public UserDetailsServiceImpl(
             UserRepository userRepository,
-            OAuth2Util oAuth2Util) {
+            OAuth2Util oAuth2Util,
+            PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.oAuth2Util = oAuth2Util;
+        this.principalCache = principalCache;
 
         // Create a new instance of BCryptPasswordEncoder directly
         this.passwordEncoder = new BCryptPasswordEncoder();
     }
 
+    // Used for password login, so always read from the database
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        AuthenticatedUser principal = findPrincipal(email);
+        // The user is likely to send a token right after logging in
+        principalCache.put(principal);
+        return principal;
+    }
+
+    /**
+     * The principal for a request carrying a valid token for this email, from the principal cache
+     * when possible. Carries no password.
+     */
+    public AuthenticatedUser loadPrincipal(String email) throws UsernameNotFoundException {
+        return principalCache.get(email, this::findPrincipal);
+    }
+
+    private AuthenticatedUser findPrincipal(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .roles(user.getRole().name().substring(5)) // Extract "USER" from "ROLE_USER"
-                .build();
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getUsername(),
+                user.getRole(),
+                user.getPassword() != null ? user.getPassword() : "");
     }
 
     @Override
@@ -7,6 +7,7 @@ import com.jgy36.PoliticalApp.repository.PendingUserRepository;
 import com.jgy36.PoliticalApp.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,6 +37,10 @@ public class UserService {
     private final PendingUserRepository pendingUserRepository;
     private final EmailService emailService;
 
+    // Field-injected so the ServiceConfig factory method doesn't need another argument
+    @Autowired
+    private TimelineService timelineService;
+
 
     public UserService(
             UserRepository userRepository,
@@ -254,6 +259,7 @@ public class UserService {
             // Remove from following
             currentUser.getFollowing().remove(targetUser);
             userRepository.save(currentUser);
+            timelineService.onFollowGraphChanged(currentUser.getId());
 
             return Map.of(
                     "success", true,
@@ -0,0 +1,383 @@
+package com.jgy36.PoliticalApp.service.autocomplete;
+
+import com.jgy36.PoliticalApp.dto.SearchResultDTO;
+import com.jgy36.PoliticalApp.entity.Community;
+import com.jgy36.PoliticalApp.repository.CommunityRepository;
+import com.jgy36.PoliticalApp.repository.HashtagRepository;
+import com.jgy36.PoliticalApp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Typeahead for the search box: one in-memory PrefixIndex each for users (by username and
+ * display name, ranked by followers), communities (by name and slug, ranked by members) and
+ * hashtags (ranked by use count). Users and communities also get a TrigramIndex, which finds
+ * misspelled names for search.
+ * Changes are applied after their transaction commits; a periodic full reload from the
+ * database picks up anything that changed without going through these hooks.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+
+    // Keys past this length can't be typed into the search box anyway
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final UserRepository userRepository;
+    private final CommunityRepository communityRepository;
+    private final HashtagRepository hashtagRepository;
+    private final int maxResults;
+    private final double fuzzyThreshold;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Indexes indexes;
+    // Changes committed while a reload is reading the database, replayed onto its result
+    private List<Consumer<Indexes>> pendingDuringReload;
+
+    public AutocompleteService(
+            UserRepository userRepository,
+            CommunityRepository communityRepository,
+            HashtagRepository hashtagRepository,
+            @Value("${app.autocomplete.max-results:10}") int maxResults,
+            @Value("${app.search.fuzzy-threshold:0.3}") double fuzzyThreshold) {
+        this.userRepository = userRepository;
+        this.communityRepository = communityRepository;
+        this.hashtagRepository = hashtagRepository;
+        this.maxResults = maxResults;
+        this.fuzzyThreshold = fuzzyThreshold;
+        this.indexes = new Indexes(maxResults);
+    }
+
+    /**
+     * Suggestions for what the user has typed so far.
+     * A leading @ or # restricts the suggestions to users or hashtags; otherwise each type
+     * (or only the requested one) contributes up to limit suggestions.
+     */
+    public List<SearchResultDTO> suggest(String query, String type, int limit) {
+        if (query == null) {
+            return new ArrayList<>();
+        }
+        String prefix = query.trim();
+        List<Kind> kinds;
+        if (type != null && !type.isEmpty()) {
+            kinds = List.of(Kind.fromType(type));
+        } else if (prefix.startsWith("@")) {
+            kinds = List.of(Kind.USER);
+        } else if (prefix.startsWith("#")) {
+            kinds = List.of(Kind.HASHTAG);
+        } else {
+            kinds = List.of(Kind.values());
+        }
+        prefix = normalize(prefix.startsWith("@") || prefix.startsWith("#") ? prefix.substring(1) : prefix);
+        int count = Math.max(0, Math.min(limit, maxResults));
+
+        List<SearchResultDTO> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Kind kind : kinds) {
+                for (PrefixIndex.Entry entry : indexes.prefixes.get(kind).lookup(prefix, count)) {
+                    results.add(kind.toResult(entry));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Users whose username or display name is similar to the query (trigram similarity of at
+     * least app.search.fuzzy-threshold), most similar first, then most followed
+     */
+    public List<SearchResultDTO> fuzzyUsers(String query, int limit) {
+        return fuzzy(Kind.USER, query, limit);
+    }
+
+    /**
+     * Communities whose name is similar to the query, most similar first, then largest
+     */
+    public List<SearchResultDTO> fuzzyCommunities(String query, int limit) {
+        return fuzzy(Kind.COMMUNITY, query, limit);
+    }
+
+    private List<SearchResultDTO> fuzzy(Kind kind, String query, int limit) {
+        List<SearchResultDTO> results = new ArrayList<>();
+        if (query == null) {
+            return results;
+        }
+        lock.readLock().lock();
+        try {
+            PrefixIndex entries = indexes.prefixes.get(kind);
+            List<TrigramIndex.Match> matches = indexes.trigrams.get(kind)
+                    .search(normalize(query), fuzzyThreshold, limit, id -> entries.get(id).score);
+            for (TrigramIndex.Match match : matches) {
+                results.add(kind.toResult(entries.get(match.id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * A user was created or changed; keeps their current follower count
+     */
+    public void onUserSaved(Long userId, String username, String displayName) {
+        afterCommit(() -> apply(indexes -> {
+            Long followers = indexes.prefixes.get(Kind.USER).score(userId.toString());
+            indexes.putUser(userId.toString(), username, displayName, followers != null ? followers : 0);
+        }));
+    }
+
+    public void onUserDeleted(Long userId) {
+        afterCommit(() -> apply(indexes -> indexes.remove(Kind.USER, userId.toString())));
+    }
+
+    /**
+     * Someone followed or unfollowed the user
+     */
+    public void onFollowersChanged(Long userId) {
+        afterCommit(() -> {
+            try {
+                int followers = userRepository.countFollowers(userId);
+                apply(indexes -> indexes.prefixes.get(Kind.USER).setScore(userId.toString(), followers));
+            } catch (DataAccessException e) {
+                logger.warn("Failed to refresh follower count for user {} in autocomplete", userId, e);
+            }
+        });
+    }
+
+    /**
+     * A community was created or changed, or its membership changed. Call with the members loaded.
+     */
+    public void onCommunitySaved(Community community) {
+        String id = community.getId().toString();
+        String name = community.getName();
+        String slug = community.getSlug();
+        int members = community.getMembers().size();
+        afterCommit(() -> apply(indexes -> indexes.putCommunity(id, name, slug, members)));
+    }
+
+    /**
+     * Hashtags (with # prefix) were just used or created
+     */
+    public void onHashtagsUsed(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<String> used = new ArrayList<>(tags);
+        afterCommit(() -> {
+            try {
+                List<Object[]> counts = hashtagRepository.findTagCountsByTagIn(used);
+                apply(indexes -> {
+                    for (Object[] row : counts) {
+                        indexes.putHashtag((String) row[0], (Integer) row[1]);
+                    }
+                });
+            } catch (DataAccessException e) {
+                logger.warn("Failed to refresh hashtag counts in autocomplete", e);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    // Full reload from the database, replacing the live indexes in one swap
+    @Scheduled(fixedDelayString = "${app.autocomplete.reload-interval-ms:900000}",
+            initialDelayString = "${app.autocomplete.reload-interval-ms:900000}")
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Indexes loaded = new Indexes(maxResults);
+        try {
+            for (Object[] row : userRepository.findAutocompleteRows()) {
+                loaded.putUser(row[0].toString(), (String) row[1], (String) row[2], ((Number) row[3]).longValue());
+            }
+            for (Object[] row : communityRepository.findAutocompleteRows()) {
+                loaded.putCommunity(row[0].toString(), (String) row[2], (String) row[1], ((Number) row[3]).longValue());
+            }
+            for (Object[] row : hashtagRepository.findTagCounts()) {
+                loaded.putHashtag((String) row[0], (Integer) row[1]);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Autocomplete reload failed; keeping the current indexes", e);
+            loaded = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (loaded != null) {
+                for (Consumer<Indexes> change : pendingDuringReload) {
+                    change.accept(loaded);
+                }
+                indexes = loaded;
+                logger.info("Autocomplete loaded {} users, {} communities, {} hashtags in {} ms",
+                        loaded.prefixes.get(Kind.USER).size(), loaded.prefixes.get(Kind.COMMUNITY).size(),
+                        loaded.prefixes.get(Kind.HASHTAG).size(), System.currentTimeMillis() - start);
+            }
+            pendingDuringReload = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Every change is an absolute write (never a +1), so replaying it after a reload is safe
+    private void apply(Consumer<Indexes> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(indexes);
+            if (pendingDuringReload != null) {
+                pendingDuringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The whole name plus each later word, so "Jane Doe" is found by "doe" too
+    private static void addNameKeys(List<String> keys, String name) {
+        if (name == null) {
+            return;
+        }
+        String normalized = normalize(name);
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ' && normalized.charAt(i) != ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Everything the service serves from; swapped as a whole by a reload
+    private static final class Indexes {
+        private final Map<Kind, PrefixIndex> prefixes = new EnumMap<>(Kind.class);
+        private final Map<Kind, TrigramIndex> trigrams = new EnumMap<>(Kind.class);
+
+        Indexes(int maxResults) {
+            for (Kind kind : Kind.values()) {
+                prefixes.put(kind, new PrefixIndex(maxResults));
+            }
+            trigrams.put(Kind.USER, new TrigramIndex());
+            trigrams.put(Kind.COMMUNITY, new TrigramIndex());
+        }
+
+        void putUser(String id, String username, String displayName, long followers) {
+            List<String> keys = new ArrayList<>();
+            keys.add(normalize(username));
+            addNameKeys(keys, displayName);
+            prefixes.get(Kind.USER).put(id, displayName != null ? displayName : username, username, keys, followers);
+            trigrams.get(Kind.USER).put(id, displayName != null
+                    ? List.of(normalize(username), normalize(displayName))
+                    : List.of(normalize(username)));
+        }
+
+        void putCommunity(String id, String name, String slug, long members) {
+            List<String> keys = new ArrayList<>();
+            addNameKeys(keys, name);
+            keys.add(normalize(slug));
+            prefixes.get(Kind.COMMUNITY).put(id, name, slug, keys, members);
+            trigrams.get(Kind.COMMUNITY).put(id, List.of(normalize(name)));
+        }
+
+        void putHashtag(String tag, Integer count) {
+            String bare = tag.startsWith("#") ? tag.substring(1) : tag;
+            prefixes.get(Kind.HASHTAG).put(tag, tag, tag, List.of(normalize(bare)), count != null ? count : 0);
+        }
+
+        void remove(Kind kind, String id) {
+            prefixes.get(kind).remove(id);
+            TrigramIndex fuzzy = trigrams.get(kind);
+            if (fuzzy != null) {
+                fuzzy.remove(id);
+            }
+        }
+    }
+
+    private enum Kind {
+        USER("user"),
+        COMMUNITY("community"),
+        HASHTAG("hashtag");
+
+        private final String type;
+
+        Kind(String type) {
+            this.type = type;
+        }
+
+        static Kind fromType(String type) {
+            for (Kind kind : values()) {
+                if (kind.type.equalsIgnoreCase(type)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown autocomplete type: " + type);
+        }
+
+        SearchResultDTO toResult(PrefixIndex.Entry entry) {
+            SearchResultDTO result = new SearchResultDTO();
+            result.setType(type);
+            result.setName(entry.name);
+            switch (this) {
+                case USER -> {
+                    result.setId(entry.id);
+                    result.setUsername(entry.value);
+                    result.setFollowersCount((int) entry.score);
+                }
+                case COMMUNITY -> {
+                    result.setId(entry.value);
+                    result.setMembers((int) entry.score);
+                }
+                case HASHTAG -> {
+                    result.setId(entry.value.startsWith("#") ? entry.value.substring(1) : entry.value);
+                    result.setTag(entry.value);
+                    result.setCount((int) entry.score);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.jgy36.PoliticalApp.service.autocomplete;
+
+import java.util.*;
+
+/**
+ * Character trie in which every node caches the k most popular entries below it, so a lookup
+ * is a walk down the prefix plus a copy of at most k entries - independent of how many
+ * entries share the prefix. Children are kept in sorted parallel arrays rather than maps.
+ * <p>
+ * An entry may have several keys (a username and a display name) and appears once in results.
+ * Changing an entry recomputes the cached lists only along its own key paths.
+ * Not thread-safe.
+ */
+final class PrefixIndex {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    // Most popular first; ties go to the shorter, then alphabetically first, name
+    private static final Comparator<Entry> RANK = Comparator.<Entry>comparingLong(e -> -e.score)
+            .thenComparingInt(e -> e.name.length())
+            .thenComparing(e -> e.name);
+
+    private final int k;
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    PrefixIndex(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Add or replace an entry. Keys must already be normalized.
+     */
+    void put(String id, String name, String value, Collection<String> keys, long score) {
+        Entry existing = entries.get(id);
+        Set<String> distinctKeys = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (key != null && !key.isEmpty()) {
+                distinctKeys.add(key);
+            }
+        }
+
+        if (existing != null && existing.name.equals(name) && existing.value.equals(value)
+                && Arrays.asList(existing.keys).equals(new ArrayList<>(distinctKeys))) {
+            setScore(id, score);
+            return;
+        }
+
+        remove(id);
+        if (distinctKeys.isEmpty()) {
+            return;
+        }
+        Entry entry = new Entry(id, name, value, distinctKeys.toArray(new String[0]), score);
+        entries.put(id, entry);
+        for (String key : entry.keys) {
+            List<Node> path = descend(key, true);
+            Node last = path.get(path.size() - 1);
+            last.terminals = append(last.terminals, entry);
+            recompute(path, key);
+        }
+    }
+
+    /**
+     * Update an entry's popularity; does nothing if the entry isn't indexed
+     */
+    void setScore(String id, long score) {
+        Entry entry = entries.get(id);
+        if (entry == null || entry.score == score) {
+            return;
+        }
+        entry.score = score;
+        for (String key : entry.keys) {
+            recompute(descend(key, false), key);
+        }
+    }
+
+    Entry get(String id) {
+        return entries.get(id);
+    }
+
+    Long score(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.score : null;
+    }
+
+    void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            List<Node> path = descend(key, false);
+            Node last = path.get(path.size() - 1);
+            last.terminals = without(last.terminals, entry);
+            recompute(path, key);
+        }
+    }
+
+    /**
+     * Up to limit (at most k) entries whose keys start with the prefix, most popular first
+     */
+    List<Entry> lookup(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int n = Math.min(limit, node.top.length);
+        return n <= 0 ? Collections.emptyList() : Arrays.asList(Arrays.copyOf(node.top, n));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Nodes from the root down to the end of the key
+    private List<Node> descend(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node next = node.child(key.charAt(i));
+            if (next == null) {
+                if (!create) {
+                    break;
+                }
+                next = node.addChild(key.charAt(i));
+            }
+            node = next;
+            path.add(node);
+        }
+        return path;
+    }
+
+    // Rebuild the cached top lists bottom-up along a key path, pruning nodes left empty
+    private void recompute(List<Node> path, String key) {
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node node = path.get(depth);
+            if (depth > 0 && node.terminals.length == 0 && node.children.length == 0) {
+                path.get(depth - 1).removeChild(key.charAt(depth - 1));
+                continue;
+            }
+
+            // Children's lists are already ranked: merge their heads until k distinct entries
+            PriorityQueue<Cursor> heads = new PriorityQueue<>(node.children.length + 1);
+            if (node.terminals.length > 0) {
+                Entry[] terminals = node.terminals.clone();
+                Arrays.sort(terminals, RANK);
+                heads.add(new Cursor(terminals));
+            }
+            for (Node child : node.children) {
+                if (child.top.length > 0) {
+                    heads.add(new Cursor(child.top));
+                }
+            }
+
+            List<Entry> top = new ArrayList<>(k);
+            while (top.size() < k && !heads.isEmpty()) {
+                Cursor cursor = heads.poll();
+                Entry candidate = cursor.entries[cursor.position++];
+                // An entry reachable through two of its keys shows up in two lists
+                if (!top.contains(candidate)) {
+                    top.add(candidate);
+                }
+                if (cursor.position < cursor.entries.length) {
+                    heads.add(cursor);
+                }
+            }
+            node.top = top.toArray(NO_ENTRIES);
+        }
+    }
+
+    private static Entry[] append(Entry[] array, Entry entry) {
+        Entry[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] array, Entry entry) {
+        List<Entry> result = new ArrayList<>(Arrays.asList(array));
+        result.remove(entry);
+        return result.toArray(NO_ENTRIES);
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Entry[] entries;
+        private int position;
+
+        Cursor(Entry[] entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return RANK.compare(entries[position], other.entries[other.position]);
+        }
+    }
+
+    static final class Entry {
+        final String id;
+        final String name;
+        final String value;
+        final String[] keys;
+        long score;
+
+        Entry(String id, String name, String value, String[] keys, long score) {
+            this.id = id;
+            this.name = name;
+            this.value = value;
+            this.keys = keys;
+            this.score = score;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] terminals = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node addChild(char c) {
+            int at = -Arrays.binarySearch(labels, c) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            Node node = new Node();
+            newLabels[at] = c;
+            newChildren[at] = node;
+            labels = newLabels;
+            children = newChildren;
+            return node;
+        }
+
+        void removeChild(char c) {
+            int at = Arrays.binarySearch(labels, c);
+            if (at < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(labels, at + 1, newLabels, at, labels.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.jgy36.PoliticalApp.service.autocomplete;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Trigram posting lists for fuzzy name matching, in the style of PostgreSQL's pg_trgm:
+ * each word is padded with two spaces in front and one behind, and two strings are compared
+ * by the Jaccard similarity of their trigram sets. A query only visits the names that share
+ * enough of its rarest trigrams, so misspellings are found without scanning every name.
+ * <p>
+ * An entry may have several names; it matches with the best of them. Not thread-safe.
+ */
+final class TrigramIndex {
+
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, Name> names = new HashMap<>();
+    private final Map<String, int[]> namesByEntry = new HashMap<>();
+    private int nextNameId;
+
+    /**
+     * Add or replace an entry's names. Names must already be normalized.
+     */
+    void put(String id, Collection<String> entryNames) {
+        remove(id);
+        List<Integer> ids = new ArrayList<>(entryNames.size());
+        for (String text : new LinkedHashSet<>(entryNames)) {
+            Set<String> trigrams = trigrams(text);
+            if (trigrams.isEmpty()) {
+                continue;
+            }
+            int nameId = nextNameId++;
+            names.put(nameId, new Name(id, trigrams.toArray(new String[0])));
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(nameId);
+            }
+            ids.add(nameId);
+        }
+        if (!ids.isEmpty()) {
+            namesByEntry.put(id, ids.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    void remove(String id) {
+        int[] nameIds = namesByEntry.remove(id);
+        if (nameIds == null) {
+            return;
+        }
+        for (int nameId : nameIds) {
+            Name name = names.remove(nameId);
+            for (String trigram : name.trigrams) {
+                Set<Integer> list = postings.get(trigram);
+                list.remove(nameId);
+                if (list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Entry ids whose best name has at least minSimilarity with the query, most similar first,
+     * then most popular
+     */
+    List<Match> search(String query, double minSimilarity, int limit, ToLongFunction<String> popularity) {
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Jaccard similarity is at most shared / |query|, so a match shares at least minShared
+        // trigrams with the query and must contain one of its (size - minShared + 1) rarest.
+        // Only those posting lists produce candidates; common trigrams are only probed.
+        List<Set<Integer>> lists = new ArrayList<>(queryTrigrams.size());
+        for (String trigram : queryTrigrams) {
+            lists.add(postings.getOrDefault(trigram, Collections.emptySet()));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        int minShared = Math.max(1, (int) Math.ceil(minSimilarity * lists.size()));
+        int prefixLength = lists.size() - minShared + 1;
+
+        Set<Integer> candidates = new HashSet<>();
+        for (Set<Integer> list : lists.subList(0, prefixLength)) {
+            candidates.addAll(list);
+        }
+
+        Map<String, Double> best = new HashMap<>();
+        for (Integer nameId : candidates) {
+            int common = 0;
+            for (Set<Integer> list : lists) {
+                if (list.contains(nameId)) {
+                    common++;
+                }
+            }
+            Name name = names.get(nameId);
+            double similarity = (double) common / (lists.size() + name.trigrams.length - common);
+            if (similarity >= minSimilarity) {
+                best.merge(name.entryId, similarity, Math::max);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best.size());
+        best.forEach((id, similarity) -> matches.add(new Match(id, similarity)));
+        matches.sort(Comparator.comparingDouble((Match m) -> -m.similarity)
+                .thenComparingLong(m -> -popularity.applyAsLong(m.id)));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    static final class Match {
+        final String id;
+        final double similarity;
+
+        Match(String id, double similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+    }
+
+    private static final class Name {
+        private final String entryId;
+        private final String[] trigrams;
+
+        Name(String entryId, String[] trigrams) {
+            this.entryId = entryId;
+            this.trigrams = trigrams;
+        }
+    }
+}
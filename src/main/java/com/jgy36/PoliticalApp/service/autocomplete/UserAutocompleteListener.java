@@ -0,0 +1,34 @@
+package com.jgy36.PoliticalApp.service.autocomplete;
+
+import com.jgy36.PoliticalApp.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps user autocomplete current however a user is created, renamed or deleted.
+ * Hibernate gets this listener from Spring; the service is looked up lazily because the
+ * listener is created while the EntityManagerFactory that the service depends on is still
+ * being built.
+ */
+public class UserAutocompleteListener {
+
+    private final ObjectProvider<AutocompleteService> autocompleteService;
+
+    public UserAutocompleteListener(ObjectProvider<AutocompleteService> autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(User user) {
+        autocompleteService.ifAvailable(service ->
+                service.onUserSaved(user.getId(), user.getUsername(), user.getDisplayName()));
+    }
+
+    @PostRemove
+    public void onRemoved(User user) {
+        autocompleteService.ifAvailable(service -> service.onUserDeleted(user.getId()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.jgy36.PoliticalApp.service.blacklist;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over SHA-256 token digests. The digests are already uniformly distributed, so
+ * the k probe positions come straight from their first 128 bits by double hashing instead of
+ * hashing again. Thread-safe; elements can't be removed - the filter is rebuilt instead.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    BloomFilter(long expectedElements, double falsePositiveRate) {
+        long n = Math.max(expectedElements, 1);
+        // Optimal sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (m + 63) >>> 6));
+        this.bits = (long) words.length() << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    void add(String hexDigest) {
+        long h1 = Long.parseUnsignedLong(hexDigest, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexDigest, 16, 32, 16);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(String hexDigest) {
+        long h1 = Long.parseUnsignedLong(hexDigest, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexDigest, 16, 32, 16);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,207 @@
+package com.jgy36.PoliticalApp.service.blacklist;
+
+import com.jgy36.PoliticalApp.utils.TokenDigest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process Bloom filter of blacklisted token digests, so the common case - a token that was
+ * never revoked - is answered without asking Redis. Only a filter hit (a revoked token or a
+ * false positive) goes on to Redis, which stays the source of truth.
+ * <p>
+ * Every instance adds a revocation locally and publishes it on a Redis channel that all
+ * instances subscribe to. The filter is rebuilt from a SCAN of the blacklist keys every
+ * app.blacklist.rebuild-interval-ms, which drops expired tokens (Bloom filters can't delete) and
+ * picks up anything missed while the subscription was down. Until the first build succeeds
+ * every check goes to Redis.
+ */
+@Component
+public class RevokedTokenFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenFilter.class);
+
+    public static final String KEY_PREFIX = "blacklist:";
+    public static final String CHANNEL = "blacklist-events";
+
+    private static final int SCAN_BATCH = 1000;
+    private static final int DIGEST_LENGTH = 64;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Filled alongside filter while a rebuild is scanning, so nothing published meanwhile is lost
+    private BloomFilter next;
+    private long lastCount;
+    private RedisMessageListenerContainer subscription;
+
+    public RevokedTokenFilter(
+            StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            @Value("${app.blacklist.expected-tokens:100000}") long expectedTokens,
+            @Value("${app.blacklist.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * False only if the token with this digest is certainly not blacklisted
+     */
+    public boolean mightBeRevoked(String digest) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(digest);
+    }
+
+    /**
+     * Record a revocation here and on every other instance
+     */
+    public void publish(String digest) {
+        addLocal(digest);
+        redisTemplate.convertAndSend(CHANNEL, digest);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (subscription != null) {
+            subscription.destroy();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.blacklist.rebuild-interval-ms:60000}",
+            initialDelayString = "${app.blacklist.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        // Subscribe before scanning, so a revocation can't fall between the two. Without the
+        // subscription the filter would miss other instances' revocations, so don't use one.
+        if (!subscribe()) {
+            filter = null;
+            return;
+        }
+
+        BloomFilter building = new BloomFilter(Math.max(expectedTokens, 2 * lastCount), falsePositiveRate);
+        synchronized (this) {
+            next = building;
+        }
+
+        long count = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(SCAN_BATCH).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String digest = digestOf(keys.next());
+                if (digest != null) {
+                    building.add(digest);
+                    count++;
+                }
+            }
+        } catch (Exception e) {
+            synchronized (this) {
+                next = null;
+            }
+            logger.warn("Couldn't rebuild the token blacklist filter, {}",
+                    filter == null ? "checking Redis for every token" : "keeping the previous one", e);
+            return;
+        }
+
+        synchronized (this) {
+            filter = building;
+            next = null;
+        }
+        lastCount = count;
+        logger.debug("Rebuilt the token blacklist filter with {} tokens", count);
+    }
+
+    private boolean subscribe() {
+        if (subscription != null && subscription.isRunning()) {
+            return true;
+        }
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> addLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL));
+        try {
+            container.afterPropertiesSet();
+            container.start();
+            subscription = container;
+            return true;
+        } catch (Exception e) {
+            logger.warn("Couldn't subscribe to {}, checking Redis for every token until the next attempt: {}",
+                    CHANNEL, e.getMessage());
+            try {
+                container.destroy();
+            } catch (Exception ignored) {
+                // Never got a connection
+            }
+            return false;
+        }
+    }
+
+    private synchronized void addLocal(String digest) {
+        if (!isDigest(digest)) {
+            return;
+        }
+        if (filter != null) {
+            filter.add(digest);
+        }
+        if (next != null) {
+            next.add(digest);
+        }
+    }
+
+    // Keys written before the blacklist was keyed by digest hold the raw token; move them over
+    private String digestOf(String key) {
+        String suffix = key.substring(KEY_PREFIX.length());
+        if (isDigest(suffix)) {
+            return suffix;
+        }
+
+        Long ttlMillis = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+        if (ttlMillis == null || ttlMillis == -2) {
+            return null;
+        }
+        String digest = TokenDigest.sha256Hex(suffix);
+        if (ttlMillis > 0) {
+            redisTemplate.opsForValue().set(KEY_PREFIX + digest, "blacklisted", ttlMillis, TimeUnit.MILLISECONDS);
+        } else {
+            redisTemplate.opsForValue().set(KEY_PREFIX + digest, "blacklisted");
+        }
+        redisTemplate.delete(key);
+        return digest;
+    }
+
+    private static boolean isDigest(String value) {
+        if (value.length() != DIGEST_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
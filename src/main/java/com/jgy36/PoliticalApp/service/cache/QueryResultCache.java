@@ -0,0 +1,268 @@
+package com.jgy36.PoliticalApp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.jgy36.PoliticalApp.service.search.TextAnalyzer;
+import com.jgy36.PoliticalApp.utils.ContentTokenizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search and hashtag-page results, keyed by namespace, normalized query and page.
+ * Caffeine's W-TinyLFU admission keeps popular queries resident and stops one-off queries from
+ * flushing them out.
+ * <p>
+ * Every entry is registered under the dependencies it was computed from - the hashtags, index
+ * terms or entity types whose writes can change it - and writes invalidate exactly those entries
+ * once they commit. A result that was being computed while one of its dependencies changed is
+ * returned but not cached, so a slow query can't put a stale result back after the invalidation.
+ * The TTL only bounds drift in values nothing tracks, like counts shown next to a result.
+ * <p>
+ * Hit, miss and eviction counts are published to Micrometer as cache.* meters tagged
+ * cache=queryResults, and so show up under the actuator's metrics endpoint.
+ */
+@Component
+public class QueryResultCache {
+
+    public static final String POSTS_BY_TAG = "postsByTag";
+    public static final String HASHTAG_SEARCH = "hashtagSearch";
+    public static final String SEARCH = "search";
+
+    public static final String USERS = "users";
+    public static final String COMMUNITIES = "communities";
+
+    private static final int VERSION_STRIPES = 4096;
+
+    private final Cache<Key, Entry> cache;
+    private final Map<String, Set<Entry>> dependents = new ConcurrentHashMap<>();
+    // Bumped before each invalidation. Striped by hash, so an unrelated write can occasionally
+    // keep a result from being cached, but never the other way round.
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    // Cached hashtag searches, whose queries are matched against the tags of each post write
+    private final Map<Key, Entry> hashtagSearches = new ConcurrentHashMap<>();
+    // Bumped before hashtag searches are invalidated, which only reaches the queries already cached
+    private final AtomicLong hashtagSearchVersion = new AtomicLong();
+
+    public QueryResultCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.query-cache.max-entries:10000}") long maxEntries,
+            @Value("${app.query-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        unregister(entry);
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "queryResults");
+    }
+
+    /**
+     * The cached result for this query, or the loader's result, cached under the given dependencies.
+     * Exceptions from the loader propagate and nothing is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String namespace, String query, int page, int size,
+                     Collection<String> dependencies, Supplier<T> loader) {
+        Key key = new Key(namespace, query, page, size);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached.value;
+        }
+
+        long[] seen = versions(dependencies);
+        long seenHashtagSearches = hashtagSearchVersion.get();
+        T value = loader.get();
+
+        Entry entry = new Entry(key, value, dependencies);
+        for (String dependency : dependencies) {
+            dependents.compute(dependency, (d, entries) -> {
+                Set<Entry> set = entries != null ? entries : ConcurrentHashMap.newKeySet();
+                set.add(entry);
+                return set;
+            });
+        }
+        if (HASHTAG_SEARCH.equals(namespace)) {
+            hashtagSearches.put(key, entry);
+        }
+        cache.put(key, entry);
+
+        // An invalidation that ran after the load started may have missed this entry
+        if (!Arrays.equals(seen, versions(dependencies))
+                || (HASHTAG_SEARCH.equals(namespace) && hashtagSearchVersion.get() != seenHashtagSearches)) {
+            cache.asMap().remove(key, entry);
+        }
+        return value;
+    }
+
+    public void invalidate(Collection<String> dependencies) {
+        for (String dependency : dependencies) {
+            versions.incrementAndGet(stripe(dependency));
+            Set<Entry> entries = dependents.remove(dependency);
+            if (entries != null) {
+                for (Entry entry : entries) {
+                    // The removal listener drops it from its other dependencies
+                    cache.asMap().remove(entry.key, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidate everything that depends on posts with this content, once the transaction commits.
+     * Pass the old content as well when a post is edited.
+     */
+    public void onPostContentChanged(String... contents) {
+        Set<String> dependencies = new HashSet<>();
+        Set<String> tags = new HashSet<>();
+        for (String content : contents) {
+            for (String tag : ContentTokenizer.tokenize(content).getDistinctHashtags()) {
+                String lower = tag.toLowerCase(Locale.ROOT);
+                tags.add(lower);
+                // "#tag" pages fall back to a substring match on content, so "#elect" can include "#election"
+                for (int end = 2; end <= lower.length(); end++) {
+                    dependencies.add(tagDependency(lower.substring(0, end)));
+                }
+            }
+            for (String term : TextAnalyzer.documentTerms(content)) {
+                dependencies.add(termDependency(term));
+            }
+        }
+        afterCommit(() -> {
+            invalidate(dependencies);
+            invalidateHashtagSearches(tags);
+        });
+    }
+
+    /**
+     * Hashtag searches cache ids and load the hashtags fresh, so their counts are always current
+     * and a result only goes stale when a hashtag it would match is created. Drop the cached
+     * searches whose query is contained in one of the written tags - one contains() per cached
+     * hashtag search and tag, instead of a dependency per substring of every tag.
+     */
+    private void invalidateHashtagSearches(Set<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        hashtagSearchVersion.incrementAndGet();
+        Set<String> matched = new HashSet<>();
+        for (Key key : hashtagSearches.keySet()) {
+            for (String tag : tags) {
+                if (tag.contains(key.query)) {
+                    matched.add(hashtagSearchDependency(key.query));
+                    break;
+                }
+            }
+        }
+        invalidate(matched);
+    }
+
+    public void onUsersChanged() {
+        afterCommit(() -> invalidate(List.of(USERS)));
+    }
+
+    public void onCommunitiesChanged() {
+        afterCommit(() -> invalidate(List.of(COMMUNITIES)));
+    }
+
+    /**
+     * Posts whose content contains this hashtag (with # prefix)
+     */
+    public static String tagDependency(String tag) {
+        return "tag:" + tag.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Posts containing this search index term
+     */
+    public static String termDependency(String term) {
+        return "term:" + term;
+    }
+
+    /**
+     * Hashtags whose tag contains this text
+     */
+    public static String hashtagSearchDependency(String text) {
+        return "hashtagSearch:" + text.toLowerCase(Locale.ROOT);
+    }
+
+    private void unregister(Entry entry) {
+        hashtagSearches.remove(entry.key, entry);
+        for (String dependency : entry.dependencies) {
+            dependents.computeIfPresent(dependency, (d, entries) -> {
+                entries.remove(entry);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    private long[] versions(Collection<String> dependencies) {
+        long[] result = new long[dependencies.size()];
+        int i = 0;
+        for (String dependency : dependencies) {
+            result[i++] = versions.get(stripe(dependency));
+        }
+        return result;
+    }
+
+    private static int stripe(String dependency) {
+        return Math.floorMod(dependency.hashCode(), VERSION_STRIPES);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String namespace;
+        private final String query;
+        private final int page;
+        private final int size;
+
+        Key(String namespace, String query, int page, int size) {
+            this.namespace = namespace;
+            this.query = query;
+            this.page = page;
+            this.size = size;
+        }
+    }
+
+    // Compared by identity, so unregistering an evicted entry never touches its replacement
+    private static final class Entry {
+        private final Key key;
+        private final Object value;
+        private final List<String> dependencies;
+
+        Entry(Key key, Object value, Collection<String> dependencies) {
+            this.key = key;
+            this.value = value;
+            this.dependencies = List.copyOf(dependencies);
+        }
+    }
+}
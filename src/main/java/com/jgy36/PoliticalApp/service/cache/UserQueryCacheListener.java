@@ -0,0 +1,27 @@
+package com.jgy36.PoliticalApp.service.cache;
+
+import com.jgy36.PoliticalApp.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Drops cached user search results whenever a user is created, edited or deleted, wherever
+ * in the app that happens. Looked up lazily for the same reason as UserAutocompleteListener.
+ */
+public class UserQueryCacheListener {
+
+    private final ObjectProvider<QueryResultCache> queryResultCache;
+
+    public UserQueryCacheListener(ObjectProvider<QueryResultCache> queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(User user) {
+        queryResultCache.ifAvailable(QueryResultCache::onUsersChanged);
+    }
+}
@@ -0,0 +1,102 @@
+package com.jgy36.PoliticalApp.service.feed;
+
+import com.jgy36.PoliticalApp.dto.FeedCursor;
+import com.jgy36.PoliticalApp.entity.Post;
+
+import java.util.*;
+
+/**
+ * Merges several newest-first post sources (e.g. one per community) into a single page.
+ * Each source is read through its own keyset cursor in small chunks, and a priority queue
+ * of the current heads picks the next post, so work stops as soon as the page is full
+ * instead of loading and sorting every source's full history.
+ */
+public final class KWayFeedMerger {
+
+    // Feed order: newest first, id breaks ties
+    private static final Comparator<Post> FEED_ORDER = Comparator
+            .comparing(Post::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Post::getId, Comparator.reverseOrder());
+
+    private KWayFeedMerger() {
+    }
+
+    /**
+     * One keyset-paginated source of posts
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Up to count posts strictly older than the cursor, newest first
+         */
+        List<Post> fetch(FeedCursor after, int count);
+    }
+
+    /**
+     * Return up to count posts older than the cursor across all sources, newest first
+     */
+    public static List<Post> merge(List<Source> sources, FeedCursor after, int count) {
+        if (sources.isEmpty() || count <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Start each source with roughly its fair share of the page; busy sources refill on demand
+        int initialChunk = count / sources.size() + 1;
+        PriorityQueue<Head> heads = new PriorityQueue<>(sources.size(),
+                (a, b) -> FEED_ORDER.compare(a.peek(), b.peek()));
+        for (Source source : sources) {
+            Head head = new Head(source);
+            if (head.refill(after, initialChunk)) {
+                heads.add(head);
+            }
+        }
+
+        List<Post> page = new ArrayList<>(count);
+        while (page.size() < count && !heads.isEmpty()) {
+            Head head = heads.poll();
+            Post next = head.poll();
+            page.add(next);
+
+            if (head.isEmpty() && !head.exhausted) {
+                head.refill(FeedCursor.of(next), count - page.size());
+            }
+            if (!head.isEmpty()) {
+                heads.add(head);
+            }
+        }
+        return page;
+    }
+
+    private static final class Head {
+        private final Source source;
+        private final Deque<Post> buffer = new ArrayDeque<>();
+        private boolean exhausted;
+
+        Head(Source source) {
+            this.source = source;
+        }
+
+        // Returns true if the buffer has posts after refilling
+        boolean refill(FeedCursor after, int count) {
+            if (count <= 0) {
+                return !buffer.isEmpty();
+            }
+            List<Post> chunk = source.fetch(after, count);
+            buffer.addAll(chunk);
+            exhausted = chunk.size() < count;
+            return !buffer.isEmpty();
+        }
+
+        Post peek() {
+            return buffer.peekFirst();
+        }
+
+        Post poll() {
+            return buffer.pollFirst();
+        }
+
+        boolean isEmpty() {
+            return buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.jgy36.PoliticalApp.service.like;
+
+import com.jgy36.PoliticalApp.repository.PostRepository;
+import com.jgy36.PoliticalApp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Write-behind buffer for post likes.
+ * A like toggle only records the user's new like state and a +1/-1 delta in memory; every
+ * app.likes.flush-interval-ms the buffered likes are written in one transaction, with one
+ * counter UPDATE per post instead of one per like, so a viral post's row isn't locked by
+ * every request. Unflushed state is overlaid on reads, so users always see their own likes.
+ */
+@Component
+public class LikeWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    private static final String INSERT_LIKED_USER =
+            "INSERT INTO posts_liked_users (post_id, liked_users_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_POST_LIKE =
+            "INSERT INTO post_likes (post_id, user_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String DELETE_LIKED_USER =
+            "DELETE FROM posts_liked_users WHERE post_id = ? AND liked_users_id = ?";
+    private static final String DELETE_POST_LIKE =
+            "DELETE FROM post_likes WHERE post_id = ? AND user_id = ?";
+    private static final String UPDATE_LIKE_COUNT =
+            "UPDATE posts SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+
+    // Toggles share the read lock; a flush takes the write lock only to swap batches
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Batch current = new Batch();
+    private Batch flushing;
+    private volatile boolean closed;
+
+    public LikeWriteBuffer(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           PostRepository postRepository,
+                           UserRepository userRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Flip the user's like on a post.
+     *
+     * @param persistedState whether the like exists in the database; only consulted when
+     *                       nothing is buffered for this user and post
+     * @return true if the post is now liked
+     */
+    public boolean toggle(Long postId, Long userId, String email, BooleanSupplier persistedState) {
+        LikeKey key = new LikeKey(postId, email);
+        boolean liked;
+
+        swapLock.readLock().lock();
+        try {
+            PendingLike inFlight = flushing != null ? flushing.likes.get(key) : null;
+            // Hit the database before compute() so the query never runs under the map's bin lock
+            boolean persisted = inFlight == null && !current.likes.containsKey(key) && persistedState.getAsBoolean();
+            PendingLike updated = current.likes.compute(key, (k, pending) -> {
+                boolean before;
+                if (pending != null) {
+                    before = pending.liked;
+                } else if (inFlight != null) {
+                    before = inFlight.liked;
+                } else {
+                    before = persisted;
+                }
+                return new PendingLike(userId, !before);
+            });
+            liked = updated.liked;
+            current.deltas.computeIfAbsent(postId, id -> new LongAdder()).add(liked ? 1 : -1);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        // Past shutdown there's no scheduler left to write this out
+        if (closed) {
+            flush();
+        }
+        return liked;
+    }
+
+    /**
+     * The user's buffered like state for a post, or null if nothing is pending
+     */
+    public Boolean pendingState(Long postId, String email) {
+        LikeKey key = new LikeKey(postId, email);
+        swapLock.readLock().lock();
+        try {
+            PendingLike pending = current.likes.get(key);
+            if (pending == null && flushing != null) {
+                pending = flushing.likes.get(key);
+            }
+            return pending != null ? pending.liked : null;
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Net like change for a post that hasn't reached the like_count column yet
+     */
+    public long pendingDelta(Long postId) {
+        swapLock.readLock().lock();
+        try {
+            long delta = current.delta(postId);
+            if (flushing != null) {
+                delta += flushing.delta(postId);
+            }
+            return delta;
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.flush-interval-ms:500}")
+    public synchronized void flush() {
+        Batch batch;
+        swapLock.writeLock().lock();
+        try {
+            if (current.likes.isEmpty()) {
+                return;
+            }
+            batch = current;
+            flushing = batch;
+            current = new Batch();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                write(batch);
+                // pendingDelta adds the in-flight batch to like_count, so it has to go as soon as
+                // the counters commit, not once the transaction has been cleaned up
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        endFlush(null);
+                    }
+                });
+            });
+        } catch (DataAccessException e) {
+            if (e instanceof TransientDataAccessException) {
+                logger.warn("Like flush failed, retrying {} likes on the next flush", batch.likes.size(), e);
+                endFlush(batch);
+            } else {
+                logger.warn("Like flush failed, writing {} likes post by post", batch.likes.size(), e);
+                writeSeparately(batch);
+            }
+        } finally {
+            // No-op if the batch was already committed or requeued
+            endFlush(null);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        flush();
+    }
+
+    /**
+     * Retry a batch that failed for good one post at a time, so one bad row only costs its own
+     * post. If a post still fails, its likes are written one by one without the counter, which
+     * PostCounterReconciliationTask repairs; only the likes that fail on their own are dropped.
+     */
+    private void writeSeparately(Batch batch) {
+        Map<Long, Batch> byPost = new TreeMap<>();
+        batch.likes.forEach((key, pending) ->
+                byPost.computeIfAbsent(key.postId, id -> new Batch()).likes.put(key, pending));
+        batch.deltas.forEach((postId, delta) ->
+                byPost.computeIfAbsent(postId, id -> new Batch()).deltas.put(postId, delta));
+
+        byPost.forEach((postId, part) -> {
+            if (tryWrite(part)) {
+                return;
+            }
+            part.likes.forEach((key, pending) -> {
+                Batch single = new Batch();
+                single.likes.put(key, pending);
+                if (!tryWrite(single)) {
+                    logger.error("Dropping buffered like of post {} by user {}", key.postId, pending.userId);
+                }
+            });
+        });
+    }
+
+    private boolean tryWrite(Batch part) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                write(part);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        settle(part);
+                    }
+                });
+            });
+            return true;
+        } catch (DataAccessException e) {
+            logger.debug("Like write failed for {} likes", part.likes.size(), e);
+            return false;
+        }
+    }
+
+    // Stop overlaying the part of the in-flight batch that has just committed
+    private void settle(Batch part) {
+        swapLock.writeLock().lock();
+        try {
+            if (flushing != null) {
+                part.likes.keySet().forEach(flushing.likes::remove);
+                part.deltas.keySet().forEach(flushing.deltas::remove);
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void write(Batch batch) {
+        // Posts and users deleted since the like was buffered would fail the whole batch on their
+        // foreign keys. A deleted user's toggles stay in the post's delta until reconciliation.
+        Set<Long> likedPostIds = new HashSet<>(batch.deltas.keySet());
+        Set<Long> userIds = new HashSet<>();
+        batch.likes.forEach((key, pending) -> {
+            likedPostIds.add(key.postId);
+            userIds.add(pending.userId);
+        });
+        Set<Long> postIds = new HashSet<>(postRepository.findExistingIds(likedPostIds));
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(userIds));
+
+        List<Object[]> added = new ArrayList<>();
+        List<Object[]> removed = new ArrayList<>();
+        batch.likes.forEach((key, pending) -> {
+            if (postIds.contains(key.postId) && existingUsers.contains(pending.userId)) {
+                (pending.liked ? added : removed).add(new Object[]{key.postId, pending.userId});
+            }
+        });
+
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_LIKED_USER, removed);
+            jdbcTemplate.batchUpdate(DELETE_POST_LIKE, removed);
+        }
+        if (!added.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LIKED_USER, added);
+            jdbcTemplate.batchUpdate(INSERT_POST_LIKE, added);
+        }
+
+        // Update counters in id order so concurrent flushes from other nodes can't deadlock
+        List<Object[]> counters = new ArrayList<>();
+        new TreeMap<>(batch.deltas).forEach((postId, delta) -> {
+            long sum = delta.sum();
+            if (sum != 0 && postIds.contains(postId)) {
+                counters.add(new Object[]{sum, postId});
+            }
+        });
+        if (!counters.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LIKE_COUNT, counters);
+        }
+
+        logger.debug("Flushed {} likes across {} posts", batch.likes.size(), counters.size());
+    }
+
+    /**
+     * Stop overlaying the in-flight batch, first moving it back into the current one if it failed.
+     * Both happen under the write lock so no read counts the batch twice or not at all.
+     */
+    private void endFlush(Batch failed) {
+        swapLock.writeLock().lock();
+        try {
+            if (failed != null) {
+                // Newer toggles already reflect the failed batch's state, so they win over it
+                failed.likes.forEach(current.likes::putIfAbsent);
+                failed.deltas.forEach((postId, delta) ->
+                        current.deltas.computeIfAbsent(postId, id -> new LongAdder()).add(delta.sum()));
+            }
+            flushing = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static final class Batch {
+        private final Map<LikeKey, PendingLike> likes = new ConcurrentHashMap<>();
+        // LongAdder stripes increments across cells, so hot posts don't contend on one counter
+        private final Map<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+
+        long delta(Long postId) {
+            LongAdder adder = deltas.get(postId);
+            return adder != null ? adder.sum() : 0;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static final class LikeKey {
+        private final Long postId;
+        private final String email;
+
+        LikeKey(Long postId, String email) {
+            this.postId = postId;
+            this.email = email;
+        }
+    }
+
+    private static final class PendingLike {
+        private final Long userId;
+        private final boolean liked;
+
+        PendingLike(Long userId, boolean liked) {
+            this.userId = userId;
+            this.liked = liked;
+        }
+    }
+}
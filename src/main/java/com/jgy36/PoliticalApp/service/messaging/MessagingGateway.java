@@ -0,0 +1,104 @@
+package com.jgy36.PoliticalApp.service.messaging;
+
+import com.jgy36.PoliticalApp.dto.ConversationEventDTO;
+import com.jgy36.PoliticalApp.dto.MessageResponse;
+import com.jgy36.PoliticalApp.entity.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Fans conversation events out to WebSocket clients through the STOMP broker (see WebSocketConfig).
+ * <ul>
+ *     <li>/topic/conversations.{id} - messages, read receipts and typing in one conversation,
+ *     for clients that have it open</li>
+ *     <li>/user/queue/messages - every new message in any of the user's conversations, for the
+ *     conversation list</li>
+ *     <li>/topic/presence.{userId} - a user coming online or going offline, for the users they
+ *     share a conversation with</li>
+ * </ul>
+ * Events about stored changes are sent once the transaction commits. Delivery is best-effort:
+ * a client that was disconnected reloads the conversation over REST.
+ */
+@Component
+public class MessagingGateway {
+
+    public static final String CONVERSATION_TOPIC = "/topic/conversations.";
+    public static final String PRESENCE_TOPIC = "/topic/presence.";
+    public static final String USER_MESSAGES = "/queue/messages";
+    public static final String USER_ERRORS = "/queue/errors";
+
+    private static final Logger logger = LoggerFactory.getLogger(MessagingGateway.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public MessagingGateway(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Deliver a new message to the conversation and to each participant's own queue
+     *
+     * @param participantEmails every participant, sender included, so their other sessions see it too
+     */
+    public void messageSent(Message message, Collection<String> participantEmails) {
+        // Built now, while the message's sender can still be loaded
+        ConversationEventDTO event = ConversationEventDTO.message(MessageResponse.from(message));
+        List<String> recipients = List.copyOf(participantEmails);
+        afterCommit(() -> send(() -> {
+            messagingTemplate.convertAndSend(CONVERSATION_TOPIC + event.getConversationId(), event);
+            for (String email : recipients) {
+                messagingTemplate.convertAndSendToUser(email, USER_MESSAGES, event);
+            }
+        }));
+    }
+
+    /**
+     * Tell the conversation a participant has read the other participants' messages
+     *
+     * @param upToMessageId the last message read, or null for everything so far
+     */
+    public void conversationRead(Long conversationId, Long userId, Long upToMessageId) {
+        ConversationEventDTO event = ConversationEventDTO.read(conversationId, userId, upToMessageId);
+        afterCommit(() -> send(() -> messagingTemplate.convertAndSend(CONVERSATION_TOPIC + conversationId, event)));
+    }
+
+    public void typing(Long conversationId, Long userId, boolean typing) {
+        ConversationEventDTO event = ConversationEventDTO.typing(conversationId, userId, typing);
+        send(() -> messagingTemplate.convertAndSend(CONVERSATION_TOPIC + conversationId, event));
+    }
+
+    public void presence(Long userId, boolean online) {
+        ConversationEventDTO event = ConversationEventDTO.presence(userId, online);
+        send(() -> messagingTemplate.convertAndSend(PRESENCE_TOPIC + userId, event));
+    }
+
+    // A broker that is down (the relay) must not fail the caller, which has already committed
+    private static void send(Runnable delivery) {
+        try {
+            delivery.run();
+        } catch (MessagingException e) {
+            logger.warn("Could not publish a conversation event", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.jgy36.PoliticalApp.service.messaging;
+
+import com.jgy36.PoliticalApp.service.principal.AuthenticatedUser;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who is connected over WebSocket right now. A user is online while they have at least one
+ * session; the first connect and the last disconnect are published to /topic/presence.{userId}.
+ * Nothing is stored, and each node only knows its own sessions.
+ */
+@Component
+public class PresenceRegistry {
+
+    private final MessagingGateway messagingGateway;
+    private final Map<String, Long> usersBySession = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> sessionCounts = new ConcurrentHashMap<>();
+
+    public PresenceRegistry(MessagingGateway messagingGateway) {
+        this.messagingGateway = messagingGateway;
+    }
+
+    public boolean isOnline(Long userId) {
+        return sessionCounts.containsKey(userId);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Long userId = userId(event.getUser());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (userId == null || sessionId == null || usersBySession.putIfAbsent(sessionId, userId) != null) {
+            return;
+        }
+        if (sessionCounts.merge(userId, 1, Integer::sum) == 1) {
+            messagingGateway.presence(userId, true);
+        }
+    }
+
+    // Can be published more than once for the same session
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        Long userId = usersBySession.remove(event.getSessionId());
+        if (userId == null) {
+            return;
+        }
+        if (sessionCounts.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null) == null) {
+            messagingGateway.presence(userId, false);
+        }
+    }
+
+    private static Long userId(Principal user) {
+        if (user instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
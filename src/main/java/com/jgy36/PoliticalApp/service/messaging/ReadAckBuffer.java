@@ -0,0 +1,122 @@
+package com.jgy36.PoliticalApp.service.messaging;
+
+import com.jgy36.PoliticalApp.repository.MessageRepository;
+import com.jgy36.PoliticalApp.service.unread.UnreadCounters;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for read acks from WebSocket clients.
+ * A client acks every message it shows, so an ack only records the highest message id per
+ * participant and conversation in memory; every app.messaging.ack-flush-interval-ms the acks are
+ * written in one transaction, one UPDATE per conversation however many acks arrived for it.
+ * Read receipts go out to the conversation once the flush commits.
+ */
+@Component
+public class ReadAckBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadAckBuffer.class);
+
+    // Counters are updated in user id order so concurrent writers can't deadlock
+    private static final Comparator<AckKey> USER_ORDER =
+            Comparator.comparing((AckKey key) -> key.userId).thenComparing(key -> key.conversationId);
+
+    private final MessageRepository messageRepository;
+    private final UnreadCounters unreadCounters;
+    private final MessagingGateway messagingGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<AckKey, Long> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public ReadAckBuffer(MessageRepository messageRepository,
+                         UnreadCounters unreadCounters,
+                         MessagingGateway messagingGateway,
+                         PlatformTransactionManager transactionManager) {
+        this.messageRepository = messageRepository;
+        this.unreadCounters = unreadCounters;
+        this.messagingGateway = messagingGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record that the user has seen the conversation's messages up to and including messageId
+     */
+    public void acknowledge(Long conversationId, Long userId, Long messageId) {
+        pending.merge(new AckKey(conversationId, userId), messageId, Math::max);
+
+        // Past shutdown there's no scheduler left to write this out
+        if (closed) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.messaging.ack-flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<AckKey, Long> batch = new TreeMap<>(USER_ORDER);
+        for (AckKey key : pending.keySet()) {
+            Long upTo = pending.remove(key);
+            if (upTo != null) {
+                batch.put(key, upTo);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (DataAccessException e) {
+            if (e instanceof TransientDataAccessException) {
+                logger.warn("Read ack flush failed, retrying {} acks on the next flush", batch.size(), e);
+                batch.forEach((key, upTo) -> pending.merge(key, upTo, Math::max));
+            } else {
+                // The client acks again the next time it opens the conversation
+                logger.error("Read ack flush failed, dropping {} acks", batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        flush();
+    }
+
+    private void write(Map<AckKey, Long> batch) {
+        int read = 0;
+        for (Map.Entry<AckKey, Long> entry : batch.entrySet()) {
+            AckKey key = entry.getKey();
+            int updated = messageRepository.markReadUpTo(key.conversationId, key.userId, entry.getValue());
+            if (updated > 0) {
+                unreadCounters.messagesRead(key.conversationId, key.userId, updated);
+                messagingGateway.conversationRead(key.conversationId, key.userId, entry.getValue());
+                read += updated;
+            }
+        }
+        logger.debug("Flushed {} read acks, {} messages marked read", batch.size(), read);
+    }
+
+    @EqualsAndHashCode
+    private static final class AckKey {
+        private final Long conversationId;
+        private final Long userId;
+
+        AckKey(Long conversationId, Long userId) {
+            this.conversationId = conversationId;
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jgy36.PoliticalApp.service.notification;
+
+import com.jgy36.PoliticalApp.entity.Notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Which notifications merge into one row, and how a merged row reads.
+ * Likes and reposts merge per recipient and liked/reposted item; follows merge per recipient.
+ * A merged row counts its actors and keeps the last few, so the inbox shows
+ * "alice and 41 others liked your post" and grows with topics rather than events.
+ */
+final class NotificationGrouping {
+
+    static final int RECENT_ACTORS = 3;
+
+    private static final Set<String> GROUPED_TYPES = Set.of("like", "repost", "follow");
+
+    private NotificationGrouping() {
+    }
+
+    /**
+     * The key events merge under, or null if this type is always its own notification
+     */
+    static String groupKey(Long recipientId, String notificationType, Long referenceId, Long secondaryReferenceId) {
+        if (notificationType == null || !GROUPED_TYPES.contains(notificationType)) {
+            return null;
+        }
+        // A follow's reference is the follower, so every follow for a recipient is one topic
+        if (notificationType.equals("follow")) {
+            return recipientId + ":follow";
+        }
+        return recipientId + ":" + notificationType + ":" + referenceId + ":" + secondaryReferenceId;
+    }
+
+    /**
+     * Count a new actor on a grouped notification and rewrite its message.
+     * An actor already among the recent ones (say, liking again after an unlike) moves to the
+     * front without being counted twice; older repeats can't be told apart and are counted.
+     */
+    static void addActor(Notification notification, String actor, String action) {
+        List<String> actors = recentActors(notification);
+        if (!actors.remove(actor)) {
+            notification.setActorCount(notification.getActorCount() + 1);
+        }
+        actors.add(0, actor);
+        if (actors.size() > RECENT_ACTORS) {
+            actors = actors.subList(0, RECENT_ACTORS);
+        }
+        notification.setRecentActors(String.join(",", actors));
+        notification.setMessage(message(actor, notification.getActorCount(), action));
+    }
+
+    static String message(String latestActor, int actorCount, String action) {
+        if (actorCount <= 1) {
+            return latestActor + action;
+        }
+        int others = actorCount - 1;
+        return latestActor + " and " + others + (others == 1 ? " other" : " others") + action;
+    }
+
+    private static List<String> recentActors(Notification notification) {
+        String recent = notification.getRecentActors();
+        if (recent == null || recent.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(recent.split(",")));
+    }
+}
@@ -0,0 +1,273 @@
+package com.jgy36.PoliticalApp.service.notification;
+
+import com.jgy36.PoliticalApp.dto.NotificationDTO;
+import com.jgy36.PoliticalApp.entity.Notification;
+import com.jgy36.PoliticalApp.repository.NotificationRepository;
+import com.jgy36.PoliticalApp.repository.UserRepository;
+import com.jgy36.PoliticalApp.service.unread.UnreadCounters;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory outbox for notifications.
+ * Services only append an event once their transaction commits, so a write endpoint never waits
+ * on notification inserts and a rolled-back action never notifies anyone. Every
+ * app.notifications.dispatch-interval-ms the queued events are written in batches: one query for
+ * the recipients that still exist and one saveAll, in a single transaction per batch. Preferences
+ * come from NotificationPreferenceCache, which only queries the recipients it doesn't hold yet.
+ * Grouped events (see NotificationGrouping) are merged into the recipient's open notification for
+ * the same topic - one opened within
+ * app.notifications.group-window-hours and still unread - instead of adding a row each.
+ * <p>
+ * The queue is bounded by app.notifications.outbox-capacity; when it is full the event is written
+ * on the caller's thread instead of being dropped. Once a batch commits, its notifications are
+ * pushed to recipients connected through NotificationPushRegistry. Events still queued at shutdown are written
+ * before the context closes, but a crash loses them - notifications are best-effort.
+ */
+@Component
+public class NotificationOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationPreferenceCache preferenceCache;
+    private final NotificationPushRegistry pushRegistry;
+    private final UnreadCounters unreadCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingNotification> queue;
+    private final int batchSize;
+    private final Duration groupWindow;
+    private volatile boolean closed;
+
+    public NotificationOutbox(NotificationRepository notificationRepository,
+                              UserRepository userRepository,
+                              NotificationPreferenceCache preferenceCache,
+                              NotificationPushRegistry pushRegistry,
+                              UnreadCounters unreadCounters,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.notifications.outbox-capacity:100000}") int capacity,
+                              @Value("${app.notifications.batch-size:500}") int batchSize,
+                              @Value("${app.notifications.group-window-hours:24}") long groupWindowHours) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.preferenceCache = preferenceCache;
+        this.pushRegistry = pushRegistry;
+        this.unreadCounters = unreadCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // offer() can deliver from a caller's afterCommit, where the finished transaction is still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.groupWindow = Duration.ofHours(groupWindowHours);
+    }
+
+    /**
+     * Queue a notification for delivery once the current transaction commits.
+     *
+     * @param notificationType checked against the recipient's preferences at delivery;
+     *                         null for notifications that can't be turned off
+     */
+    public void enqueue(Long recipientId, String message, String notificationType,
+                        Long referenceId, Long secondaryReferenceId, String communityId) {
+        PendingNotification pending = new PendingNotification(recipientId, message, notificationType,
+                referenceId, secondaryReferenceId, communityId, null, null, null, LocalDateTime.now());
+        afterCommit(() -> offer(pending));
+    }
+
+    /**
+     * Queue a notification that merges with others on the same topic, like "alice and 3 others
+     * liked your post". Types that don't group are queued as a plain actor + action message.
+     *
+     * @param action the message after the actor's name, e.g. " liked your post"
+     */
+    public void enqueueGrouped(Long recipientId, String actorName, String action, String notificationType,
+                               Long referenceId, Long secondaryReferenceId, String communityId) {
+        String groupKey = NotificationGrouping.groupKey(recipientId, notificationType, referenceId, secondaryReferenceId);
+        PendingNotification pending = new PendingNotification(recipientId, actorName + action, notificationType,
+                referenceId, secondaryReferenceId, communityId, groupKey, actorName, action, LocalDateTime.now());
+        afterCommit(() -> offer(pending));
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch-interval-ms:250}")
+    public synchronized void dispatch() {
+        List<PendingNotification> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        while (queue.drainTo(batch, batchSize) > 0) {
+            // A requeued batch waits for the next tick instead of being drained straight back out
+            if (!deliver(batch)) {
+                return;
+            }
+            batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        dispatch();
+    }
+
+    private void offer(PendingNotification pending) {
+        if (!queue.offer(pending)) {
+            logger.warn("Notification outbox is full, delivering on the caller's thread");
+            deliver(List.of(pending));
+            return;
+        }
+        // Past shutdown there's no scheduler left to drain the queue
+        if (closed) {
+            dispatch();
+        }
+    }
+
+    // False if the batch failed transiently and was put back in the queue
+    private boolean deliver(List<PendingNotification> batch) {
+        Set<Notification> written;
+        Set<Notification> created = new HashSet<>();
+        try {
+            written = transactionTemplate.execute(status -> write(batch, created));
+        } catch (DataAccessException e) {
+            if (e instanceof TransientDataAccessException) {
+                logger.warn("Notification delivery failed, retrying {} notifications on the next dispatch", batch.size(), e);
+                long rejected = batch.stream().filter(pending -> !queue.offer(pending)).count();
+                if (rejected > 0) {
+                    logger.error("Notification outbox is full, dropping {} notifications that failed to deliver", rejected);
+                }
+                return false;
+            }
+            logger.error("Notification delivery failed, dropping {} notifications", batch.size(), e);
+            return true;
+        }
+
+        // Committed - push to connected recipients; a merged group was already unread
+        for (Notification notification : written) {
+            Long recipientId = notification.getRecipient().getId();
+            if (pushRegistry.isConnected(recipientId)) {
+                pushRegistry.publish(recipientId, NotificationDTO.from(notification), created.contains(notification) ? 1 : 0);
+            }
+        }
+        return true;
+    }
+
+    // Returns every row written; the ones that are new are also added to created
+    private Set<Notification> write(List<PendingNotification> batch, Set<Notification> created) {
+        Set<Long> recipientIds = batch.stream().map(n -> n.recipientId).collect(Collectors.toSet());
+        // Recipients deleted since the event was queued would fail the whole batch on their foreign key
+        Set<Long> existing = new HashSet<>(userRepository.findExistingIds(recipientIds));
+        Map<Long, Integer> preferences = preferenceCache.masks(recipientIds);
+
+        // Open groups these events merge into; merged rows are saved along with the new ones
+        Set<String> groupKeys = batch.stream().map(n -> n.groupKey).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, Notification> groups = new HashMap<>();
+        if (!groupKeys.isEmpty()) {
+            for (Notification open : notificationRepository.findOpenGroups(groupKeys, LocalDateTime.now().minus(groupWindow))) {
+                groups.merge(open.getGroupKey(), open,
+                        (a, b) -> a.getCreatedAt().isAfter(b.getCreatedAt()) ? a : b);
+            }
+        }
+
+        Set<Notification> notifications = new LinkedHashSet<>();
+        for (PendingNotification pending : batch) {
+            if (!existing.contains(pending.recipientId)
+                    || !NotificationPreferenceCache.allows(preferences.get(pending.recipientId), pending.notificationType)) {
+                continue;
+            }
+            Notification group = pending.groupKey != null ? groups.get(pending.groupKey) : null;
+            if (group != null) {
+                NotificationGrouping.addActor(group, pending.actorName, pending.action);
+                // Follows point at the latest follower; a bumped group moves back to the top of the inbox
+                group.setReferenceId(pending.referenceId);
+                group.setSecondaryReferenceId(pending.secondaryReferenceId);
+                group.setCreatedAt(pending.createdAt);
+                notifications.add(group);
+                continue;
+            }
+
+            Notification notification = new Notification();
+            notification.setRecipient(userRepository.getReferenceById(pending.recipientId));
+            notification.setMessage(pending.message);
+            notification.setNotificationType(pending.notificationType);
+            notification.setReferenceId(pending.referenceId);
+            notification.setSecondaryReferenceId(pending.secondaryReferenceId);
+            notification.setCommunityId(pending.communityId);
+            notification.setCreatedAt(pending.createdAt);
+            if (pending.groupKey != null) {
+                notification.setGroupKey(pending.groupKey);
+                notification.setRecentActors(pending.actorName);
+                groups.put(pending.groupKey, notification);
+            }
+            notifications.add(notification);
+            created.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+
+        // New rows add to the recipient's unread count (merged groups were already unread).
+        // Counters are updated in user id order so concurrent writers can't deadlock.
+        Map<Long, Integer> unreadDeltas = new TreeMap<>();
+        for (Notification notification : created) {
+            unreadDeltas.merge(notification.getRecipient().getId(), 1, Integer::sum);
+        }
+        unreadDeltas.forEach(unreadCounters::adjustNotifications);
+
+        logger.debug("Delivered {} of {} queued notifications", notifications.size(), batch.size());
+        return notifications;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class PendingNotification {
+        private final Long recipientId;
+        private final String message;
+        private final String notificationType;
+        private final Long referenceId;
+        private final Long secondaryReferenceId;
+        private final String communityId;
+        private final String groupKey;
+        private final String actorName;
+        private final String action;
+        private final LocalDateTime createdAt;
+
+        PendingNotification(Long recipientId, String message, String notificationType,
+                            Long referenceId, Long secondaryReferenceId, String communityId,
+                            String groupKey, String actorName, String action, LocalDateTime createdAt) {
+            this.recipientId = recipientId;
+            this.message = message;
+            this.notificationType = notificationType;
+            this.referenceId = referenceId;
+            this.secondaryReferenceId = secondaryReferenceId;
+            this.communityId = communityId;
+            this.groupKey = groupKey;
+            this.actorName = actorName;
+            this.action = action;
+            this.createdAt = createdAt;
+        }
+    }
+}
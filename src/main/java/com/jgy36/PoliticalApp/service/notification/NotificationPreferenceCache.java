@@ -0,0 +1,134 @@
+package com.jgy36.PoliticalApp.service.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jgy36.PoliticalApp.entity.UserNotificationPreferences;
+import com.jgy36.PoliticalApp.repository.UserNotificationPreferencesRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Bounded cache of which notification types each user accepts, kept as one bitmask per user
+ * (a bit per preference that can turn a type off). Misses for a whole set of recipients are
+ * resolved with a single query. NotificationPreferencesService evicts a user once a change to
+ * their preferences commits; the TTL only covers writes that bypass it.
+ */
+@Component
+public class NotificationPreferenceCache {
+
+    static final int NEW_COMMENT = 1;
+    static final int MENTION = 1 << 1;
+    static final int LIKE = 1 << 2;
+    static final int FOLLOW = 1 << 3;
+    static final int DIRECT_MESSAGE = 1 << 4;
+    static final int COMMUNITY_UPDATE = 1 << 5;
+    // Users without saved preferences get everything
+    static final int ALL = NEW_COMMENT | MENTION | LIKE | FOLLOW | DIRECT_MESSAGE | COMMUNITY_UPDATE;
+
+    private final UserNotificationPreferencesRepository preferencesRepository;
+    private final Cache<Long, Integer> masks;
+
+    public NotificationPreferenceCache(UserNotificationPreferencesRepository preferencesRepository,
+                                       @Value("${app.notifications.preference-cache.max-entries:100000}") long maxEntries,
+                                       @Value("${app.notifications.preference-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.preferencesRepository = preferencesRepository;
+        this.masks = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * The recipients that accept notifications of this type, in their original order
+     */
+    public List<Long> filter(Collection<Long> recipientIds, String notificationType) {
+        int bit = bitFor(notificationType);
+        if (bit == 0) {
+            return new ArrayList<>(recipientIds);
+        }
+        Map<Long, Integer> found = masks(recipientIds);
+        List<Long> accepted = new ArrayList<>(recipientIds.size());
+        for (Long recipientId : recipientIds) {
+            if ((found.get(recipientId) & bit) != 0) {
+                accepted.add(recipientId);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Preference bitmasks for these users; check them with {@link #allows(int, String)}
+     */
+    public Map<Long, Integer> masks(Collection<Long> userIds) {
+        return masks.getAll(new HashSet<>(userIds), this::load);
+    }
+
+    /**
+     * Evict the user's preferences once the current transaction commits
+     */
+    public void invalidate(Long userId) {
+        afterCommit(() -> masks.invalidate(userId));
+    }
+
+    public static boolean allows(int mask, String notificationType) {
+        int bit = bitFor(notificationType);
+        return (mask & bit) == bit;
+    }
+
+    // 0 for types no preference can turn off
+    static int bitFor(String notificationType) {
+        if (notificationType == null) {
+            return 0;
+        }
+        return switch (notificationType) {
+            case "comment_created" -> NEW_COMMENT;
+            case "mention" -> MENTION;
+            case "like" -> LIKE;
+            case "follow", "follow_request" -> FOLLOW;
+            case "direct_message" -> DIRECT_MESSAGE;
+            case "community_update" -> COMMUNITY_UPDATE;
+            default -> 0;
+        };
+    }
+
+    static int maskOf(UserNotificationPreferences prefs) {
+        int mask = 0;
+        if (prefs.isNewCommentNotifications()) mask |= NEW_COMMENT;
+        if (prefs.isMentionNotifications()) mask |= MENTION;
+        if (prefs.isLikeNotifications()) mask |= LIKE;
+        if (prefs.isFollowNotifications()) mask |= FOLLOW;
+        if (prefs.isDirectMessageNotifications()) mask |= DIRECT_MESSAGE;
+        if (prefs.isCommunityUpdates()) mask |= COMMUNITY_UPDATE;
+        return mask;
+    }
+
+    private Map<Long, Integer> load(Set<? extends Long> userIds) {
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (UserNotificationPreferences prefs : preferencesRepository.findByUserIdIn(new ArrayList<>(userIds))) {
+            loaded.put(prefs.getUserId(), maskOf(prefs));
+        }
+        // Cache the users without a row too, so they aren't looked up again
+        for (Long userId : userIds) {
+            loaded.putIfAbsent(userId, ALL);
+        }
+        return loaded;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.jgy36.PoliticalApp.service.notification;
+
+import com.jgy36.PoliticalApp.dto.NotificationDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events connections for notification push, per user, on this instance.
+ * Pushes are queued per connection and written by a small pool of sender threads, so a slow
+ * client never holds up the notification dispatcher or anyone else's connection. A connection
+ * whose queue (app.notifications.push.buffer-size) fills up is closed; the client reconnects
+ * and starts again from a fresh unread count.
+ * <p>
+ * Events: "unread-count" {count} once on connect, then "notification" for each new or updated
+ * notification and "unread" {delta} whenever the unread count changes.
+ */
+@Component
+public class NotificationPushRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushRegistry.class);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    public NotificationPushRegistry(
+            @Value("${app.notifications.push.sender-threads:4}") int senderThreads,
+            @Value("${app.notifications.push.buffer-size:256}") int bufferSize,
+            @Value("${app.notifications.push.timeout-ms:1800000}") long timeoutMillis) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-push-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Open a push connection for the user, starting with their current unread count
+     */
+    public SseEmitter subscribe(Long userId, long unreadCount) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        push(subscriber, SseEmitter.event().name("unread-count").data(Map.of("count", unreadCount)));
+        return emitter;
+    }
+
+    public boolean isConnected(Long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    /**
+     * Push a new or updated notification, and the change it made to the unread count
+     */
+    public void publish(Long userId, NotificationDTO notification, int unreadDelta) {
+        Set<Subscriber> connections = subscribers.get(userId);
+        if (connections == null) {
+            return;
+        }
+        for (Subscriber subscriber : connections) {
+            push(subscriber, SseEmitter.event().name("notification").data(notification));
+            if (unreadDelta != 0) {
+                push(subscriber, SseEmitter.event().name("unread").data(Map.of("delta", unreadDelta)));
+            }
+        }
+    }
+
+    /**
+     * Push an unread count change, once the current transaction commits
+     */
+    public void publishUnreadDelta(Long userId, int delta) {
+        if (delta == 0 || !isConnected(userId)) {
+            return;
+        }
+        afterCommit(() -> {
+            Set<Subscriber> connections = subscribers.get(userId);
+            if (connections != null) {
+                connections.forEach(subscriber ->
+                        push(subscriber, SseEmitter.event().name("unread").data(Map.of("delta", delta))));
+            }
+        });
+    }
+
+    // Proxies drop idle connections; a comment line keeps them open and finds dead ones
+    @Scheduled(fixedDelayString = "${app.notifications.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(connections ->
+                connections.forEach(subscriber -> push(subscriber, SseEmitter.event().comment("keepalive"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(connections -> connections.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private void push(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            logger.debug("Push buffer full for user {}, closing the connection", subscriber.userId);
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // At most one drain per connection at a time, so events go out in order
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter's callbacks may not fire for a dead socket
+                    remove(subscriber);
+                    subscriber.emitter.completeWithError(e);
+                    subscriber.queue.clear();
+                    subscriber.draining.set(false);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event queued after the last poll but before the flag was cleared would be stranded
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, connections) -> {
+            connections.remove(subscriber);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
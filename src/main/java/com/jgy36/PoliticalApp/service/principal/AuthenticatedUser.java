@@ -0,0 +1,48 @@
+package com.jgy36.PoliticalApp.service.principal;
+
+import com.jgy36.PoliticalApp.entity.Role;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * Spring Security principal that also carries the user's id and username, so code handling an
+ * authenticated request can use them without looking the user up by email again.
+ * getUsername() is still the email, as everywhere else in the app.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+    private final String handle;
+    private final Role role;
+
+    public AuthenticatedUser(Long id, String email, String handle, Role role, String password) {
+        super(email, password, List.of(new SimpleGrantedAuthority(role.name())));
+        this.id = id;
+        this.handle = handle;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * The user's @username (getUsername() returns the email)
+     */
+    public String getHandle() {
+        return handle;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * Same principal without the password hash, for keeping in memory
+     */
+    public AuthenticatedUser withoutPassword() {
+        return new AuthenticatedUser(id, getUsername(), handle, role, "");
+    }
+}
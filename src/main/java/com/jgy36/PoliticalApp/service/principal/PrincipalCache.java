@@ -0,0 +1,105 @@
+package com.jgy36.PoliticalApp.service.principal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of authenticated principals by email, so JwtTokenFilter doesn't query the
+ * user on every request. Entries hold no password hash. Any change to a user - profile, email,
+ * role, password or deletion - evicts it once committed; the TTL only covers writes that bypass
+ * the entity (bulk updates).
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, AuthenticatedUser> principals;
+    // A changed email leaves the entry under the old one, so entries can be found by id as well
+    private final Map<Long, String> emailsById = new ConcurrentHashMap<>();
+    // Bumped before each eviction. Users change rarely, so one counter for all of them is enough:
+    // a change only keeps principals loaded at the same moment from being cached.
+    private final AtomicLong version = new AtomicLong();
+
+    public PrincipalCache(
+            @Value("${app.principal-cache.max-entries:10000}") long maxEntries,
+            @Value("${app.principal-cache.ttl-ms:60000}") long ttlMillis) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                // Run the listener inline so it can't race a reload of the same user
+                .executor(Runnable::run)
+                .removalListener((String email, AuthenticatedUser principal, RemovalCause cause) -> {
+                    if (principal != null && cause != RemovalCause.REPLACED) {
+                        emailsById.remove(principal.getId(), email);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * The cached principal for this email, or the loader's result. Exceptions from the loader
+     * (an unknown email) propagate and nothing is cached.
+     */
+    public AuthenticatedUser get(String email, Function<String, AuthenticatedUser> loader) {
+        AuthenticatedUser cached = principals.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+
+        long seen = version.get();
+        AuthenticatedUser principal = loader.apply(email).withoutPassword();
+        emailsById.put(principal.getId(), email);
+        principals.put(email, principal);
+
+        // An eviction that ran after the load started may have missed this entry
+        if (version.get() != seen) {
+            principals.asMap().remove(email, principal);
+        }
+        return principal;
+    }
+
+    public void put(AuthenticatedUser principal) {
+        AuthenticatedUser cached = principal.withoutPassword();
+        principals.put(cached.getUsername(), cached);
+        emailsById.put(cached.getId(), cached.getUsername());
+    }
+
+    /**
+     * Evict the user's principal once the current transaction commits
+     */
+    public void onUserChanged(Long userId, String email) {
+        afterCommit(() -> {
+            version.incrementAndGet();
+            if (email != null) {
+                principals.invalidate(email);
+            }
+            String previousEmail = userId != null ? emailsById.get(userId) : null;
+            if (previousEmail != null) {
+                principals.invalidate(previousEmail);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.jgy36.PoliticalApp.service.principal;
+
+import com.jgy36.PoliticalApp.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Evicts a user's cached principal whenever the user is edited or deleted, so a role, email or
+ * password change takes effect on the next request. Looked up lazily for the same reason as
+ * UserAutocompleteListener.
+ */
+public class UserPrincipalCacheListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public UserPrincipalCacheListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChanged(User user) {
+        principalCache.ifAvailable(cache -> cache.onUserChanged(user.getId(), user.getEmail()));
+    }
+}
@@ -0,0 +1,154 @@
+package com.jgy36.PoliticalApp.service.search;
+
+import java.util.*;
+
+/**
+ * Term -> (document id -> term frequency) posting lists, scored with Okapi BM25.
+ * A query only walks the posting lists of its own terms, starting from the shortest, so its
+ * cost depends on how many documents contain those terms rather than on the corpus size.
+ * Not thread-safe.
+ */
+final class InvertedIndex {
+
+    // Standard BM25 parameters: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Add a document, replacing whatever was indexed under its id before
+     */
+    void put(long id, List<String> terms) {
+        remove(id);
+        if (terms.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+        documents.put(id, new Document(frequencies.keySet().toArray(new String[0]), terms.size()));
+        totalLength += terms.size();
+    }
+
+    void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    /**
+     * Number of documents containing the term
+     */
+    int documentFrequency(String term) {
+        Map<Long, Integer> list = postings.get(term);
+        return list != null ? list.size() : 0;
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Documents containing every query term, best BM25 score first (ties: newest id first)
+     */
+    SearchHits search(Collection<String> queryTerms, int offset, int limit) {
+        if (queryTerms.isEmpty() || documents.isEmpty() || limit <= 0) {
+            return SearchHits.EMPTY;
+        }
+
+        List<Map<Long, Integer>> lists = new ArrayList<>(queryTerms.size());
+        for (String term : new LinkedHashSet<>(queryTerms)) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list == null) {
+                return SearchHits.EMPTY;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Map::size));
+
+        double[] idf = new double[lists.size()];
+        int n = documents.size();
+        for (int i = 0; i < idf.length; i++) {
+            int df = lists.get(i).size();
+            idf[i] = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        }
+        double averageLength = (double) totalLength / n;
+
+        // Keep only the offset + limit best hits; the heap's head is the worst of them
+        int keep = offset + limit;
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(keep, 1024) + 1, Hit.ORDER.reversed());
+        int total = 0;
+
+        candidates:
+        for (Map.Entry<Long, Integer> candidate : lists.get(0).entrySet()) {
+            long id = candidate.getKey();
+            double lengthNorm = K1 * (1 - B + B * documents.get(id).length / averageLength);
+
+            double score = 0;
+            for (int i = 0; i < lists.size(); i++) {
+                Integer tf = i == 0 ? candidate.getValue() : lists.get(i).get(id);
+                if (tf == null) {
+                    continue candidates;
+                }
+                score += idf[i] * tf * (K1 + 1) / (tf + lengthNorm);
+            }
+
+            total++;
+            Hit hit = new Hit(id, score);
+            if (best.size() < keep) {
+                best.add(hit);
+            } else if (Hit.ORDER.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(Hit.ORDER);
+        List<Long> ids = new ArrayList<>(Math.max(0, ranked.size() - offset));
+        for (int i = offset; i < ranked.size(); i++) {
+            ids.add(ranked.get(i).id);
+        }
+        return new SearchHits(ids, total);
+    }
+
+    private static final class Document {
+        private final String[] terms;
+        private final int length;
+
+        Document(String[] terms, int length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    private static final class Hit {
+        private static final Comparator<Hit> ORDER = Comparator.<Hit>comparingDouble(h -> -h.score)
+                .thenComparing(h -> -h.id);
+
+        private final long id;
+        private final double score;
+
+        Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
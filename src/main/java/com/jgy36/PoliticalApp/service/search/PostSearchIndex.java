@@ -0,0 +1,160 @@
+package com.jgy36.PoliticalApp.service.search;
+
+import com.jgy36.PoliticalApp.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text index over post content, kept in memory on each node.
+ * Post create/update/delete apply their change once the transaction commits, and the whole
+ * index is rebuilt from the posts table on startup. Until that rebuild has finished,
+ * isReady() is false and callers should fall back to the database.
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    private final PostRepository postRepository;
+    private final int rebuildBatchSize;
+    private final InvertedIndex index = new InvertedIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Posts changed live while the rebuild runs; its older copy of them must not win
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public PostSearchIndex(PostRepository postRepository,
+                           @Value("${app.search.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.postRepository = postRepository;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /**
+     * Index a new or edited post once the transaction commits
+     */
+    public void onPostSaved(Long postId, String content) {
+        List<String> terms = TextAnalyzer.documentTerms(content);
+        afterCommit(() -> write(() -> {
+            index.put(postId, terms);
+            if (rebuilding) {
+                changedDuringRebuild.add(postId);
+            }
+        }));
+    }
+
+    /**
+     * Drop a deleted post once the transaction commits
+     */
+    public void onPostDeleted(Long postId) {
+        afterCommit(() -> write(() -> {
+            index.remove(postId);
+            if (rebuilding) {
+                changedDuringRebuild.add(postId);
+            }
+        }));
+    }
+
+    /**
+     * Post ids matching every word of the query, best BM25 match first
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> terms = TextAnalyzer.queryTerms(query);
+        lock.readLock().lock();
+        try {
+            return index.search(terms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of posts containing a hashtag (with or without the # prefix)
+     */
+    public int countPostsWithHashtag(String tag) {
+        String term = "#" + (tag.startsWith("#") ? tag.substring(1) : tag).toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            return index.documentFrequency(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Page through the posts table by id, in the same index that live updates write to
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        int indexed = 0;
+        write(() -> rebuilding = true);
+        try {
+            while (true) {
+                List<Object[]> page = postRepository.findIdAndContentAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                write(() -> {
+                    for (Object[] row : page) {
+                        Long postId = (Long) row[0];
+                        if (!changedDuringRebuild.contains(postId)) {
+                            index.put(postId, TextAnalyzer.documentTerms((String) row[1]));
+                        }
+                    }
+                });
+                indexed += page.size();
+                afterId = (Long) page.get(page.size() - 1)[0];
+            }
+            ready = true;
+            logger.info("Indexed {} posts for search in {} ms", indexed, System.currentTimeMillis() - start);
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the post search index; search will use the database", e);
+        } finally {
+            write(() -> {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            });
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
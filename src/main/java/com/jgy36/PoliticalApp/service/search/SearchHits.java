@@ -0,0 +1,23 @@
+package com.jgy36.PoliticalApp.service.search;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of ranked ids plus the total number of matches
+ */
+@Getter
+public class SearchHits {
+
+    static final SearchHits EMPTY = new SearchHits(Collections.emptyList(), 0);
+
+    private final List<Long> ids;
+    private final int total;
+
+    SearchHits(List<Long> ids, int total) {
+        this.ids = ids;
+        this.total = total;
+    }
+}
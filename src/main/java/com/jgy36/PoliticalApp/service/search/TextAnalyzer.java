@@ -0,0 +1,64 @@
+package com.jgy36.PoliticalApp.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits post text into lowercase index terms: runs of letters, digits and underscores.
+ * A #hashtag is indexed both as "#tag" and as the plain word "tag", so a search for
+ * "election" also finds "#election" while "#election" only finds the hashtag.
+ */
+public final class TextAnalyzer {
+
+    // Longer runs are URLs, hashes and the like - nobody searches for them
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> documentTerms(String text) {
+        return analyze(text, true);
+    }
+
+    public static List<String> queryTerms(String text) {
+        return analyze(text, false);
+    }
+
+    private static List<String> analyze(String text, boolean document) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isTermChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isTermChar(text.charAt(i))) {
+                i++;
+            }
+            if (i - start > MAX_TERM_LENGTH) {
+                continue;
+            }
+
+            String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+            boolean hashtag = start > 0 && text.charAt(start - 1) == '#';
+            if (hashtag) {
+                terms.add("#" + word);
+            }
+            if (!hashtag || document) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static boolean isTermChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
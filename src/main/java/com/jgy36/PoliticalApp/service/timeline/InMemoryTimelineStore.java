@@ -0,0 +1,174 @@
+package com.jgy36.PoliticalApp.service.timeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process timeline store for single-node deployments or when Redis isn't available.
+ * Each timeline is a fixed-size ring buffer; the set of timelines is itself LRU-bounded.
+ * Enable with app.timeline.store=memory
+ */
+@Component
+@ConditionalOnProperty(name = "app.timeline.store", havingValue = "memory")
+public class InMemoryTimelineStore implements TimelineStore {
+
+    private final int capacity;
+    private final Map<Long, Ring> timelines;
+    private final Set<Long> highFanoutAuthors = ConcurrentHashMap.newKeySet();
+
+    public InMemoryTimelineStore(
+            @Value("${app.timeline.capacity:500}") int capacity,
+            @Value("${app.timeline.max-users:10000}") int maxUsers) {
+        this.capacity = capacity;
+        this.timelines = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Ring> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    @Override
+    public TimelinePage read(Long userId, long beforePostId, int count) {
+        Ring ring = timelines.get(userId);
+        return ring != null ? ring.read(beforePostId, count) : null;
+    }
+
+    @Override
+    public void replace(Long userId, List<Long> postIds) {
+        Ring ring = new Ring(capacity);
+        for (Long postId : postIds) {
+            ring.add(postId);
+        }
+        timelines.put(userId, ring);
+    }
+
+    @Override
+    public void push(Collection<Long> userIds, long postId) {
+        for (Long userId : userIds) {
+            Ring ring = timelines.get(userId);
+            if (ring != null) {
+                ring.add(postId);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> userIds, long postId) {
+        for (Long userId : userIds) {
+            Ring ring = timelines.get(userId);
+            if (ring != null) {
+                ring.remove(postId);
+            }
+        }
+    }
+
+    @Override
+    public void evict(Long userId) {
+        timelines.remove(userId);
+    }
+
+    @Override
+    public Set<Long> getHighFanoutAuthors() {
+        return highFanoutAuthors;
+    }
+
+    @Override
+    public void setHighFanoutAuthor(Long authorId, boolean highFanout) {
+        if (highFanout) {
+            highFanoutAuthors.add(authorId);
+        } else {
+            highFanoutAuthors.remove(authorId);
+        }
+    }
+
+    /**
+     * Fixed-size ring of post ids kept in ascending order (oldest at head).
+     * Posts normally arrive in id order, so inserting is an append; a late arrival
+     * from a concurrent fan-out shifts only the few newer entries past it.
+     */
+    private static final class Ring {
+        private final long[] ids;
+        private int head;
+        private int size;
+
+        Ring(int capacity) {
+            this.ids = new long[capacity];
+        }
+
+        synchronized void add(long postId) {
+            if (indexOf(postId) >= 0) {
+                return;
+            }
+            if (size == ids.length) {
+                // Full: anything older than the oldest entry would be evicted immediately
+                if (postId < get(0)) {
+                    return;
+                }
+                head = (head + 1) % ids.length;
+                size--;
+            }
+
+            int i = size;
+            while (i > 0 && get(i - 1) > postId) {
+                set(i, get(i - 1));
+                i--;
+            }
+            set(i, postId);
+            size++;
+        }
+
+        synchronized void remove(long postId) {
+            int index = indexOf(postId);
+            if (index < 0) {
+                return;
+            }
+            for (int i = index; i < size - 1; i++) {
+                set(i, get(i + 1));
+            }
+            size--;
+        }
+
+        synchronized TimelinePage read(long beforePostId, int count) {
+            // Entries [0, end) are older than the cursor; walk back from end
+            int end = lowerBound(beforePostId);
+            List<Long> page = new ArrayList<>(Math.min(count, end));
+            for (int i = end - 1; i >= 0 && page.size() < count; i--) {
+                page.add(get(i));
+            }
+            return new TimelinePage(page, size == ids.length);
+        }
+
+        private int indexOf(long postId) {
+            int index = lowerBound(postId);
+            return index < size && get(index) == postId ? index : -1;
+        }
+
+        // First position whose id is >= postId
+        private int lowerBound(long postId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (get(mid) < postId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private long get(int i) {
+            return ids[(head + i) % ids.length];
+        }
+
+        private void set(int i, long postId) {
+            ids[(head + i) % ids.length] = postId;
+        }
+    }
+}
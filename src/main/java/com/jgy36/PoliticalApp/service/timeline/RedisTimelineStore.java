@@ -0,0 +1,153 @@
+package com.jgy36.PoliticalApp.service.timeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis-backed timeline store (the default).
+ * Each timeline is a sorted set scored by post id and trimmed to a fixed capacity. A sentinel
+ * member with score 0 marks the timeline as materialized, so an empty timeline is still a hit.
+ * Keys expire after app.timeline.ttl-hours, so every timeline is periodically rebuilt from
+ * the database and any missed fan-out heals itself.
+ */
+@Component
+@ConditionalOnProperty(name = "app.timeline.store", havingValue = "redis", matchIfMissing = true)
+public class RedisTimelineStore implements TimelineStore {
+
+    private static final String TIMELINE_PREFIX = "timeline:";
+    private static final String HIGH_FANOUT_KEY = "timeline:high-fanout-authors";
+    private static final String SENTINEL = "0";
+
+    // Push only into timelines that already exist, then trim everything past capacity (rank 0 is the sentinel)
+    private static final byte[] PUSH_SCRIPT = (
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+                    "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[1]) " +
+                    "redis.call('ZREMRANGEBYRANK', KEYS[1], 1, -(tonumber(ARGV[2]) + 1)) " +
+                    "return 1 " +
+                    "end " +
+                    "return 0").getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int capacity;
+    private final long ttlHours;
+
+    public RedisTimelineStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.timeline.capacity:500}") int capacity,
+            @Value("${app.timeline.ttl-hours:24}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.capacity = capacity;
+        this.ttlHours = ttlHours;
+    }
+
+    @Override
+    public TimelinePage read(Long userId, long beforePostId, int count) {
+        byte[] key = key(userId);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zCard(key);
+            connection.zSetCommands().zRevRangeByScore(key, 1, beforePostId - 1, 0, count);
+            return null;
+        });
+
+        long members = results.get(0) != null ? (Long) results.get(0) : 0L;
+        if (members == 0) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Collection<String> page = (Collection<String>) results.get(1);
+        List<Long> postIds = new ArrayList<>(page.size());
+        for (String member : page) {
+            postIds.add(Long.parseLong(member));
+        }
+        // members includes the sentinel
+        return new TimelinePage(postIds, members - 1 >= capacity);
+    }
+
+    @Override
+    public void replace(Long userId, List<Long> postIds) {
+        byte[] key = key(userId);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(key);
+            connection.zSetCommands().zAdd(key, 0, bytes(SENTINEL));
+            for (int i = 0; i < postIds.size() && i < capacity; i++) {
+                Long postId = postIds.get(i);
+                connection.zSetCommands().zAdd(key, postId, bytes(postId.toString()));
+            }
+            connection.keyCommands().expire(key, TimeUnit.HOURS.toSeconds(ttlHours));
+            return null;
+        });
+    }
+
+    @Override
+    public void push(Collection<Long> userIds, long postId) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        byte[] member = bytes(Long.toString(postId));
+        byte[] limit = bytes(Integer.toString(capacity));
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long userId : userIds) {
+                connection.scriptingCommands().eval(PUSH_SCRIPT, ReturnType.INTEGER, 1, key(userId), member, limit);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void remove(Collection<Long> userIds, long postId) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        byte[] member = bytes(Long.toString(postId));
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long userId : userIds) {
+                connection.zSetCommands().zRem(key(userId), member);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void evict(Long userId) {
+        redisTemplate.delete(TIMELINE_PREFIX + userId);
+    }
+
+    @Override
+    public Set<Long> getHighFanoutAuthors() {
+        Set<String> members = redisTemplate.opsForSet().members(HIGH_FANOUT_KEY);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> authorIds = new HashSet<>();
+        for (String member : members) {
+            authorIds.add(Long.parseLong(member));
+        }
+        return authorIds;
+    }
+
+    @Override
+    public void setHighFanoutAuthor(Long authorId, boolean highFanout) {
+        if (highFanout) {
+            redisTemplate.opsForSet().add(HIGH_FANOUT_KEY, authorId.toString());
+        } else {
+            redisTemplate.opsForSet().remove(HIGH_FANOUT_KEY, authorId.toString());
+        }
+    }
+
+    private static byte[] key(Long userId) {
+        return bytes(TIMELINE_PREFIX + userId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,38 @@
+package com.jgy36.PoliticalApp.service.timeline;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A slice of a materialized timeline: post ids newest first.
+ * truncated means the buffer is full, so older posts may exist that are no longer stored.
+ */
+@Getter
+public class TimelinePage {
+
+    private final List<Long> postIds;
+    private final boolean truncated;
+
+    public TimelinePage(List<Long> postIds, boolean truncated) {
+        this.postIds = postIds;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Cut a page out of a newest-first id list that is already in memory
+     */
+    public static TimelinePage slice(List<Long> newestFirst, long beforePostId, int count, boolean truncated) {
+        List<Long> page = new ArrayList<>(Math.min(count, newestFirst.size()));
+        for (Long postId : newestFirst) {
+            if (page.size() == count) {
+                break;
+            }
+            if (postId < beforePostId) {
+                page.add(postId);
+            }
+        }
+        return new TimelinePage(page, truncated);
+    }
+}
@@ -0,0 +1,47 @@
+package com.jgy36.PoliticalApp.service.timeline;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage for materialized home timelines: one bounded, newest-first buffer of post ids per user.
+ * Implementations must only push into timelines that already exist - a timeline is created
+ * by {@link #replace} when it is first read, so a push never creates a partial timeline.
+ */
+public interface TimelineStore {
+
+    /**
+     * Read up to count post ids older than beforePostId, newest first.
+     *
+     * @return the page, or null if this user's timeline has not been materialized
+     */
+    TimelinePage read(Long userId, long beforePostId, int count);
+
+    /**
+     * Replace a user's timeline with the given ids (newest first)
+     */
+    void replace(Long userId, List<Long> postIds);
+
+    /**
+     * Add a post to every listed timeline that is currently materialized
+     */
+    void push(Collection<Long> userIds, long postId);
+
+    /**
+     * Remove a post from every listed timeline
+     */
+    void remove(Collection<Long> userIds, long postId);
+
+    /**
+     * Drop a user's timeline so the next read rebuilds it
+     */
+    void evict(Long userId);
+
+    /**
+     * Authors with too many followers to fan out to; their posts are pulled at read time
+     */
+    Set<Long> getHighFanoutAuthors();
+
+    void setHighFanoutAuthor(Long authorId, boolean highFanout);
+}
@@ -0,0 +1,151 @@
+package com.jgy36.PoliticalApp.service.trending;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch over exponentially decayed counts.
+ * Holds at most {@code capacity} tags; when a new tag arrives and the sketch is full, it takes
+ * over the slot of the current minimum and inherits its count as an error bound, so any tag
+ * whose true decayed count exceeds total/capacity is guaranteed to be tracked.
+ * <p>
+ * Decay uses forward decay: an event at time t is added with weight e^((t - landmark) / tau),
+ * which never changes the relative order of counters, so nothing has to be touched as time
+ * passes. Counts are scaled back to "now" only when read. The landmark is moved forward
+ * before the weights can overflow.
+ * <p>
+ * The min-heap is indexed by tag, so an update is O(log capacity). Not thread-safe.
+ */
+final class DecayingSpaceSaving {
+
+    // e^40 is ~2e17 - rescale long before doubles lose the small increments
+    private static final double RESCALE_EXPONENT = 40;
+
+    private final int capacity;
+    private final double tauMillis;
+    private final String[] tags;
+    private final double[] counts;
+    private final double[] errors;
+    private final Map<String, Integer> slots;
+    private int size;
+    private long landmark;
+
+    DecayingSpaceSaving(int capacity, long tauMillis, long now) {
+        this.capacity = capacity;
+        this.tauMillis = tauMillis;
+        this.tags = new String[capacity];
+        this.counts = new double[capacity];
+        this.errors = new double[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+        this.landmark = now;
+    }
+
+    void add(String tag, long timestamp) {
+        if ((timestamp - landmark) / tauMillis > RESCALE_EXPONENT) {
+            rescale(timestamp);
+        }
+        double weight = Math.exp((timestamp - landmark) / tauMillis);
+
+        Integer slot = slots.get(tag);
+        if (slot != null) {
+            counts[slot] += weight;
+            siftDown(slot);
+        } else if (size < capacity) {
+            tags[size] = tag;
+            counts[size] = weight;
+            errors[size] = 0;
+            slots.put(tag, size);
+            siftUp(size++);
+        } else {
+            // Evict the minimum; the newcomer may have been seen up to that many times before
+            slots.remove(tags[0]);
+            errors[0] = counts[0];
+            counts[0] += weight;
+            tags[0] = tag;
+            slots.put(tag, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * The k highest counters, highest first, with counts decayed to {@code now}
+     */
+    List<TrendingTag> top(int k, long now) {
+        int n = Math.min(k, size);
+        List<TrendingTag> result = new ArrayList<>(n);
+        if (n == 0) {
+            return result;
+        }
+
+        // Sort slot numbers by count; only runs when a trending snapshot is rebuilt
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(counts[b], counts[a]));
+
+        double scale = Math.exp(-(now - landmark) / tauMillis);
+        for (int i = 0; i < n; i++) {
+            int slot = order[i];
+            result.add(new TrendingTag(tags[slot], counts[slot] * scale, errors[slot] * scale));
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Move the landmark to now; every counter shrinks by the same factor, so heap order holds
+    private void rescale(long now) {
+        double factor = Math.exp(-(now - landmark) / tauMillis);
+        for (int i = 0; i < size; i++) {
+            counts[i] *= factor;
+            errors[i] *= factor;
+        }
+        landmark = now;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[i] <= counts[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String tag = tags[a];
+        tags[a] = tags[b];
+        tags[b] = tag;
+        double count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        double error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        slots.put(tags[a], a);
+        slots.put(tags[b], b);
+    }
+}
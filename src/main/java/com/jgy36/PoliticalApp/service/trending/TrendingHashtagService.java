@@ -0,0 +1,146 @@
+package com.jgy36.PoliticalApp.service.trending;
+
+import com.jgy36.PoliticalApp.dto.TrendingHashtagDTO;
+import com.jgy36.PoliticalApp.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory trending hashtags for the 1h, 24h and 7d windows.
+ * Every hashtag use on a new post is fed into one decaying Space-Saving sketch per window, which
+ * only ever holds app.trending.capacity tags. Reads are served from a sorted snapshot that is
+ * rebuilt at most every app.trending.snapshot-refresh-ms, and only if something was recorded
+ * since - decay never changes the order, so a snapshot just needs its scores scaled to now.
+ * Each node counts the posts it handles; on startup it replays the last week of hashtag uses.
+ */
+@Service
+public class TrendingHashtagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingHashtagService.class);
+
+    // Largest limit the endpoints will serve
+    public static final int MAX_TRENDING_RESULTS = 100;
+
+    private final PostRepository postRepository;
+    private final long refreshMillis;
+    private final int seedLimit;
+    private final Map<TrendingWindow, DecayingSpaceSaving> sketches = new EnumMap<>(TrendingWindow.class);
+    private final Map<TrendingWindow, AtomicBoolean> dirty = new EnumMap<>(TrendingWindow.class);
+    private final Map<TrendingWindow, Snapshot> snapshots = Collections.synchronizedMap(new EnumMap<>(TrendingWindow.class));
+
+    public TrendingHashtagService(
+            PostRepository postRepository,
+            @Value("${app.trending.capacity:1000}") int capacity,
+            @Value("${app.trending.snapshot-refresh-ms:1000}") long refreshMillis,
+            @Value("${app.trending.seed-limit:100000}") int seedLimit) {
+        this.postRepository = postRepository;
+        this.refreshMillis = refreshMillis;
+        this.seedLimit = seedLimit;
+
+        long now = System.currentTimeMillis();
+        for (TrendingWindow window : TrendingWindow.values()) {
+            sketches.put(window, new DecayingSpaceSaving(capacity, window.getLength().toMillis(), now));
+            dirty.put(window, new AtomicBoolean(false));
+        }
+    }
+
+    /**
+     * Count one use of each tag (with # prefix) at the current time
+     */
+    public void recordTags(Collection<String> tags) {
+        record(tags, System.currentTimeMillis());
+    }
+
+    /**
+     * Top hashtags for a window, highest first
+     */
+    public List<TrendingHashtagDTO> getTrending(TrendingWindow window, int limit) {
+        int count = Math.max(0, Math.min(limit, MAX_TRENDING_RESULTS));
+        long now = System.currentTimeMillis();
+
+        Snapshot snapshot = snapshots.get(window);
+        if (snapshot == null || (now - snapshot.builtAt >= refreshMillis && dirty.get(window).get())) {
+            snapshot = rebuild(window, now);
+        }
+
+        // Decay the snapshot's scores from when it was built to now
+        double scale = Math.exp(-(double) (now - snapshot.builtAt) / window.getLength().toMillis());
+        List<TrendingHashtagDTO> result = new ArrayList<>(Math.min(count, snapshot.tags.size()));
+        for (int i = 0; i < count && i < snapshot.tags.size(); i++) {
+            TrendingTag tag = snapshot.tags.get(i);
+            double score = tag.getScore() * scale;
+            result.add(new TrendingHashtagDTO(tag.getTag(), Math.round(score), score));
+        }
+        return result;
+    }
+
+    // Warm the sketches from the database so a restart doesn't empty the trending list
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromRecentPosts() {
+        LocalDateTime since = LocalDateTime.now().minus(TrendingWindow.WEEK.getLength());
+        try {
+            List<Object[]> uses = postRepository.findHashtagUsesSince(since, PageRequest.of(0, seedLimit));
+            ZoneId zone = ZoneId.systemDefault();
+            for (Object[] use : uses) {
+                long timestamp = toLocalDateTime(use[1]).atZone(zone).toInstant().toEpochMilli();
+                record(List.of((String) use[0]), timestamp);
+            }
+            logger.info("Seeded trending hashtags with {} recent uses", uses.size());
+        } catch (DataAccessException e) {
+            logger.warn("Could not seed trending hashtags; starting empty", e);
+        }
+    }
+
+    private void record(Collection<String> tags, long timestamp) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        for (TrendingWindow window : TrendingWindow.values()) {
+            DecayingSpaceSaving sketch = sketches.get(window);
+            synchronized (sketch) {
+                for (String tag : tags) {
+                    sketch.add(tag, timestamp);
+                }
+            }
+            dirty.get(window).set(true);
+        }
+    }
+
+    private Snapshot rebuild(TrendingWindow window, long now) {
+        DecayingSpaceSaving sketch = sketches.get(window);
+        List<TrendingTag> top;
+        synchronized (sketch) {
+            dirty.get(window).set(false);
+            top = sketch.top(MAX_TRENDING_RESULTS, now);
+        }
+        Snapshot snapshot = new Snapshot(top, now);
+        snapshots.put(window, snapshot);
+        return snapshot;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static final class Snapshot {
+        private final List<TrendingTag> tags;
+        private final long builtAt;
+
+        Snapshot(List<TrendingTag> tags, long builtAt) {
+            this.tags = tags;
+            this.builtAt = builtAt;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.jgy36.PoliticalApp.service.trending;
+
+import lombok.Getter;
+
+/**
+ * A tracked tag with its decayed count. The true count lies in [score - error, score].
+ */
+@Getter
+public class TrendingTag {
+
+    private final String tag;
+    private final double score;
+    private final double error;
+
+    TrendingTag(String tag, double score, double error) {
+        this.tag = tag;
+        this.score = score;
+        this.error = error;
+    }
+}
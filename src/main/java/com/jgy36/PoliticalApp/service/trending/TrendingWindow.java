@@ -0,0 +1,38 @@
+package com.jgy36.PoliticalApp.service.trending;
+
+import java.time.Duration;
+
+/**
+ * Trending time windows. Each one decays counts with the window length as its time constant,
+ * so an event's weight falls to 1/e once it is one window old.
+ */
+public enum TrendingWindow {
+    HOUR("1h", Duration.ofHours(1)),
+    DAY("24h", Duration.ofHours(24)),
+    WEEK("7d", Duration.ofDays(7));
+
+    private final String label;
+    private final Duration length;
+
+    TrendingWindow(String label, Duration length) {
+        this.label = label;
+        this.length = length;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public static TrendingWindow fromLabel(String label) {
+        for (TrendingWindow window : values()) {
+            if (window.label.equalsIgnoreCase(label)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Unknown trending window: " + label + " (expected 1h, 24h or 7d)");
+    }
+}
@@ -0,0 +1,167 @@
+package com.jgy36.PoliticalApp.service.unread;
+
+import com.jgy36.PoliticalApp.repository.MessageRepository;
+import com.jgy36.PoliticalApp.repository.NotificationRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Materialized unread counts: per user for notifications and messages, and per conversation
+ * and participant. Writers adjust them with single atomic UPDATEs in their own transaction,
+ * so badge reads are a primary-key lookup instead of a count over every unread row.
+ * <p>
+ * A missing row is seeded from the underlying rows the first time it is touched. The seed is
+ * counted inside the caller's transaction, after its own insert or update, so it already includes
+ * the change being recorded. UnreadCounterReconciliationTask clears the table periodically,
+ * which reseeds every counter from the source of truth.
+ */
+@Component
+public class UnreadCounters {
+
+    private static final String ADJUST_NOTIFICATIONS =
+            "UPDATE user_unread_counts SET notifications = GREATEST(notifications + ?, 0) WHERE user_id = ?";
+    private static final String ADJUST_MESSAGES =
+            "UPDATE user_unread_counts SET messages = GREATEST(messages + ?, 0) WHERE user_id = ?";
+    private static final String SEED_USER =
+            "INSERT INTO user_unread_counts (user_id, notifications, messages) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SELECT_USER =
+            "SELECT notifications, messages FROM user_unread_counts WHERE user_id = ?";
+
+    private static final String ADJUST_CONVERSATION =
+            "UPDATE conversation_unread_counts SET unread = GREATEST(unread + ?, 0) WHERE conversation_id = ? AND user_id = ?";
+    private static final String SEED_CONVERSATION =
+            "INSERT INTO conversation_unread_counts (conversation_id, user_id, unread) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SELECT_CONVERSATION =
+            "SELECT unread FROM conversation_unread_counts WHERE conversation_id = ? AND user_id = ?";
+    private static final String SELECT_CONVERSATIONS =
+            "SELECT conversation_id, unread FROM conversation_unread_counts WHERE user_id = :userId AND conversation_id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final NotificationRepository notificationRepository;
+    private final MessageRepository messageRepository;
+
+    public UnreadCounters(JdbcTemplate jdbcTemplate,
+                          NotificationRepository notificationRepository,
+                          MessageRepository messageRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.notificationRepository = notificationRepository;
+        this.messageRepository = messageRepository;
+    }
+
+    public int notifications(Long userId) {
+        return userCounts(userId)[0];
+    }
+
+    public int messages(Long userId) {
+        return userCounts(userId)[1];
+    }
+
+    public void adjustNotifications(Long userId, int delta) {
+        adjustUser(ADJUST_NOTIFICATIONS, userId, delta);
+    }
+
+    public void adjustMessages(Long userId, int delta) {
+        adjustUser(ADJUST_MESSAGES, userId, delta);
+    }
+
+    /**
+     * Count a new message in the conversation for a participant who didn't send it
+     */
+    public void messageReceived(Long conversationId, Long userId) {
+        // As in adjustUser: the seed includes this message unless another transaction seeded first
+        if (jdbcTemplate.update(ADJUST_CONVERSATION, 1, conversationId, userId) == 0
+                && !seedConversation(conversationId, userId)) {
+            jdbcTemplate.update(ADJUST_CONVERSATION, 1, conversationId, userId);
+        }
+        adjustMessages(userId, 1);
+    }
+
+    /**
+     * Take messages the participant has just read off their counts for the conversation.
+     * Subtracts rather than zeroing, so a message arriving meanwhile still counts.
+     *
+     * @param count rows the caller's own UPDATE just marked read
+     */
+    public void messagesRead(Long conversationId, Long userId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        // A seed counts after the caller's update, so it already leaves these messages out
+        if (jdbcTemplate.update(ADJUST_CONVERSATION, -count, conversationId, userId) == 0
+                && !seedConversation(conversationId, userId)) {
+            jdbcTemplate.update(ADJUST_CONVERSATION, -count, conversationId, userId);
+        }
+        adjustMessages(userId, -count);
+    }
+
+    public int conversation(Long conversationId, Long userId) {
+        List<Integer> rows = jdbcTemplate.queryForList(SELECT_CONVERSATION, Integer.class, conversationId, userId);
+        if (!rows.isEmpty()) {
+            return rows.get(0);
+        }
+        seedConversation(conversationId, userId);
+        return jdbcTemplate.queryForObject(SELECT_CONVERSATION, Integer.class, conversationId, userId);
+    }
+
+    /**
+     * The participant's unread count for each of the conversations, in one query once seeded
+     */
+    public Map<Long, Integer> conversations(Long userId, Collection<Long> conversationIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (conversationIds.isEmpty()) {
+            return counts;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("ids", conversationIds);
+        namedJdbcTemplate.query(SELECT_CONVERSATIONS, params,
+                rs -> {
+                    counts.put(rs.getLong("conversation_id"), rs.getInt("unread"));
+                });
+        // Conversations nobody has written to since the counters were last cleared
+        for (Long conversationId : conversationIds) {
+            if (!counts.containsKey(conversationId)) {
+                counts.put(conversationId, conversation(conversationId, userId));
+            }
+        }
+        return counts;
+    }
+
+    private void adjustUser(String sql, Long userId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        // The seed already includes this change; if another transaction seeded first, apply it there
+        if (jdbcTemplate.update(sql, delta, userId) == 0 && !seedUser(userId)) {
+            jdbcTemplate.update(sql, delta, userId);
+        }
+    }
+
+    private int[] userCounts(Long userId) {
+        List<int[]> rows = jdbcTemplate.query(SELECT_USER,
+                (rs, i) -> new int[]{rs.getInt("notifications"), rs.getInt("messages")}, userId);
+        if (!rows.isEmpty()) {
+            return rows.get(0);
+        }
+        seedUser(userId);
+        return jdbcTemplate.queryForObject(SELECT_USER,
+                (rs, i) -> new int[]{rs.getInt("notifications"), rs.getInt("messages")}, userId);
+    }
+
+    private boolean seedUser(Long userId) {
+        long notifications = notificationRepository.countByRecipientIdAndReadFalse(userId);
+        long messages = messageRepository.countUnreadMessagesForUserId(userId);
+        return jdbcTemplate.update(SEED_USER, userId, notifications, messages) > 0;
+    }
+
+    private boolean seedConversation(Long conversationId, Long userId) {
+        long unread = messageRepository.countUnreadInConversation(conversationId, userId);
+        return jdbcTemplate.update(SEED_CONVERSATION, conversationId, userId, unread) > 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.jgy36.PoliticalApp.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single-pass extraction of #hashtags and @mentions from post and comment text.
+ * Matches the same tokens as the regexes it replaces - {@code #(\w+)} and
+ * {@code @(\w+(?:-\w+)*)} - without compiling a Pattern or allocating a Matcher per call.
+ */
+public final class ContentTokenizer {
+
+    private ContentTokenizer() {
+    }
+
+    public static Tokens tokenize(String content) {
+        if (content == null || content.isEmpty()) {
+            return Tokens.EMPTY;
+        }
+
+        List<String> hashtags = null;
+        List<String> mentions = null;
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c == '#' || c == '@') {
+                int end = wordEnd(content, i + 1);
+                if (end > i + 1) {
+                    if (c == '#') {
+                        if (hashtags == null) {
+                            hashtags = new ArrayList<>(4);
+                        }
+                        // Hashtags are stored with their # prefix
+                        hashtags.add(content.substring(i, end));
+                    } else {
+                        // Usernames may contain hyphens, but never end with one
+                        while (end + 1 < length && content.charAt(end) == '-' && isWordChar(content.charAt(end + 1))) {
+                            end = wordEnd(content, end + 1);
+                        }
+                        if (mentions == null) {
+                            mentions = new ArrayList<>(4);
+                        }
+                        mentions.add(content.substring(i + 1, end));
+                    }
+                    i = end;
+                    continue;
+                }
+            }
+            i++;
+        }
+
+        if (hashtags == null && mentions == null) {
+            return Tokens.EMPTY;
+        }
+        return new Tokens(
+                hashtags != null ? hashtags : Collections.emptyList(),
+                mentions != null ? mentions : Collections.emptyList());
+    }
+
+    private static int wordEnd(String content, int from) {
+        int end = from;
+        while (end < content.length() && isWordChar(content.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    // Same as the regex \w without UNICODE_CHARACTER_CLASS
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Tokens in the order they appear in the text, duplicates included
+     */
+    public static final class Tokens {
+        private static final Tokens EMPTY = new Tokens(Collections.emptyList(), Collections.emptyList());
+
+        private final List<String> hashtags;
+        private final List<String> mentions;
+
+        private Tokens(List<String> hashtags, List<String> mentions) {
+            this.hashtags = hashtags;
+            this.mentions = mentions;
+        }
+
+        public List<String> getHashtags() {
+            return hashtags;
+        }
+
+        public List<String> getMentions() {
+            return mentions;
+        }
+
+        public Set<String> getDistinctHashtags() {
+            return new LinkedHashSet<>(hashtags);
+        }
+
+        public Set<String> getDistinctMentions() {
+            return new LinkedHashSet<>(mentions);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.jgy36.PoliticalApp.utils;
 
+import com.jgy36.PoliticalApp.service.principal.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 public class SecurityUtils {
 
     /**
@@ -25,5 +29,36 @@ public class SecurityUtils {
         return principalName;
     }
 
+    /**
+     * Get the id of the currently authenticated user without a database lookup
+     *
+     * @return The user id, or null if not authenticated with a token (e.g. an OAuth2 session)
+     */
+    public static Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    /**
+     * Resolve the user behind an authentication. Requests authenticated with a token carry the
+     * user id on the principal, so byId can return an unloaded reference (getReferenceById) that
+     * costs no query until a field other than the id is read; anything else is looked up by email.
+     *
+     * @return The user, or empty if not authenticated or no user has the email
+     */
+    public static <U> Optional<U> findUser(Authentication authentication,
+                                           Function<Long, U> byId,
+                                           Function<String, Optional<U>> byEmail) {
+        if (authentication == null) {
+            return Optional.empty();
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return Optional.of(byId.apply(principal.getId()));
+        }
+        return byEmail.apply(authentication.getName());
+    }
 
 }
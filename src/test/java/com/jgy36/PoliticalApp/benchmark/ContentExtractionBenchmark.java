@@ -0,0 +1,70 @@
+package com.jgy36.PoliticalApp.benchmark;
+
+import com.jgy36.PoliticalApp.utils.ContentTokenizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashtag/mention extraction: the per-request Pattern.compile path the services used to take
+ * versus ContentTokenizer. Only the text scan is measured - the database side (one lookup per
+ * tag/mention versus one bulk query) needs a real database to compare.
+ * <p>
+ * Run main() on the test classpath (e.g. from the IDE); it is not part of the test suite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentExtractionBenchmark {
+
+    @Param({
+            "Town hall tonight on the new transit bill",
+            "Great debate @jane-doe and @sam_r! #election2024 #debate #Transit",
+            "Thread: #budget #healthcare #education #climate #housing #jobs cc @mayor-office @council_member @press-team @jgy36 "
+                    + "The vote is on Thursday, see #cityhall for the full agenda and #minutes from last week"
+    })
+    public String content;
+
+    @Benchmark
+    public void legacyRegexPerCall(Blackhole blackhole) {
+        // What createPost did: compile both patterns on every call, scan the text twice
+        Matcher mentionMatcher = Pattern.compile("@(\\w+(?:-\\w+)*)").matcher(content);
+        List<String> mentions = new ArrayList<>();
+        while (mentionMatcher.find()) {
+            mentions.add(mentionMatcher.group(1));
+        }
+
+        Matcher hashtagMatcher = Pattern.compile("#(\\w+)").matcher(content);
+        List<String> hashtags = new ArrayList<>();
+        while (hashtagMatcher.find()) {
+            hashtags.add("#" + hashtagMatcher.group(1));
+        }
+
+        blackhole.consume(mentions);
+        blackhole.consume(hashtags);
+    }
+
+    @Benchmark
+    public void singlePassTokenizer(Blackhole blackhole) {
+        ContentTokenizer.Tokens tokens = ContentTokenizer.tokenize(content);
+        blackhole.consume(tokens.getMentions());
+        blackhole.consume(tokens.getHashtags());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContentExtractionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
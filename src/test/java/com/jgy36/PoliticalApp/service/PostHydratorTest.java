@@ -0,0 +1,155 @@
+package com.jgy36.PoliticalApp.service;
+
+import com.jgy36.PoliticalApp.dto.PostDTO;
+import com.jgy36.PoliticalApp.entity.*;
+import com.jgy36.PoliticalApp.repository.PostRepository;
+import com.jgy36.PoliticalApp.service.like.LikeWriteBuffer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hydrator;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostHydrator.class, LikeWriteBuffer.class})
+class PostHydratorTest {
+
+    // hashtags, media, community, liked flag, saved flag
+    private static final int HYDRATION_QUERIES = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostHydrator postHydrator;
+
+    private User viewer;
+    private List<Long> postIds;
+
+    @BeforeEach
+    void setUp() {
+        viewer = persistUser("viewer");
+        User author = persistUser("author");
+
+        Community community = new Community("Politics", "politics", "", author);
+        community.setColor("#123456");
+        entityManager.persist(community);
+
+        Hashtag tag = new Hashtag("#vote");
+        entityManager.persist(tag);
+
+        viewer.setSavedPosts(new HashSet<>());
+        postIds = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Post post = new Post();
+            post.setContent("post " + i);
+            post.setAuthor(author);
+            post.setCommunity(community);
+            post.getHashtags().add(tag);
+            post.getLikedUsers().add(viewer);
+            post.setLikeCount(1);
+            post.setCommentCount(1);
+            entityManager.persist(post);
+
+            entityManager.persist(new Comment("comment " + i, viewer, post));
+
+            MediaAttachment media = new MediaAttachment();
+            media.setPost(post);
+            media.setMediaType("image");
+            media.setUrl("/media/" + i + ".png");
+            entityManager.persist(media);
+
+            if (i % 2 == 0) {
+                viewer.getSavedPosts().add(post);
+            }
+            postIds.add(post.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(viewer.getEmail(), null, Collections.emptyList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void hydratesAllFields() {
+        List<PostDTO> dtos = hydrate(postIds.subList(0, 2));
+
+        assertEquals(2, dtos.size());
+        PostDTO first = dtos.get(0);
+        assertEquals(postIds.get(0), first.getId());
+        assertEquals("author", first.getAuthor());
+        assertEquals(1, first.getLikes());
+        assertEquals(1, first.getCommentsCount());
+        assertEquals(List.of("#vote"), first.getHashtags());
+        assertEquals(1, first.getMedia().size());
+        assertEquals("politics", first.getCommunityId());
+        assertEquals("#123456", first.getCommunityColor());
+        assertTrue(first.getIsLiked());
+        assertTrue(first.getIsSaved());
+        assertFalse(dtos.get(1).getIsSaved());
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithPageSize() {
+        long small = countHydrationQueries(postIds.subList(0, 1));
+        long large = countHydrationQueries(postIds);
+
+        assertEquals(HYDRATION_QUERIES, small);
+        assertEquals(small, large);
+    }
+
+    private long countHydrationQueries(List<Long> ids) {
+        List<Post> posts = postRepository.findAllWithAuthorByIdIn(ids);
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        postHydrator.hydrate(posts);
+        long queries = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        return queries;
+    }
+
+    private List<PostDTO> hydrate(List<Long> ids) {
+        List<Post> posts = postRepository.findAllWithAuthorByIdIn(ids).stream()
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .collect(Collectors.toList());
+        return postHydrator.hydrate(posts);
+    }
+
+    private User persistUser(String username) {
+        User user = new User(username, username + "@example.com", "password", Role.ROLE_USER);
+        entityManager.persist(user);
+        return user;
+    }
+}
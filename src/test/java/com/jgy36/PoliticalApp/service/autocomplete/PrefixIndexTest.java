@@ -0,0 +1,141 @@
+package com.jgy36.PoliticalApp.service.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = new PrefixIndex(3);
+
+    @Test
+    void findsEntriesByPrefixMostPopularFirst() {
+        put("1", "alice", 5);
+        put("2", "alicia", 9);
+        put("3", "bob", 100);
+
+        assertEquals(List.of("2", "1"), ids(index.lookup("ali", 10)));
+        assertEquals(List.of("1"), ids(index.lookup("alice", 10)));
+        assertTrue(index.lookup("alicex", 10).isEmpty());
+        assertTrue(index.lookup("c", 10).isEmpty());
+    }
+
+    @Test
+    void tiesGoToTheShorterThenAlphabeticallyFirstName() {
+        put("1", "annabel", 1);
+        put("2", "annie", 1);
+        put("3", "anna", 1);
+        put("4", "anne", 1);
+
+        assertEquals(List.of("3", "4", "2"), ids(index.lookup("ann", 10)));
+    }
+
+    @Test
+    void resultsAreCappedAtLimitAndK() {
+        for (int i = 0; i < 10; i++) {
+            put(String.valueOf(i), "voter" + i, i);
+        }
+
+        assertEquals(List.of("9", "8", "7"), ids(index.lookup("vot", 10)));
+        assertEquals(List.of("9"), ids(index.lookup("vot", 1)));
+        assertTrue(index.lookup("vot", 0).isEmpty());
+        assertTrue(index.lookup("", 10).isEmpty());
+    }
+
+    @Test
+    void entryWithSeveralKeysAppearsOnce() {
+        index.put("1", "Jane Doe", "jdoe", List.of("jdoe", "jane doe", "jdoe", ""), 10);
+        put("2", "jack", 1);
+
+        assertEquals(List.of("1", "2"), ids(index.lookup("j", 10)));
+        assertEquals(List.of("1"), ids(index.lookup("jan", 10)));
+        assertEquals(List.of("1"), ids(index.lookup("jd", 10)));
+    }
+
+    @Test
+    void setScoreReordersCachedLists() {
+        put("1", "mayor", 1);
+        put("2", "mayoral", 2);
+
+        index.setScore("1", 50);
+        index.setScore("missing", 50);
+
+        assertEquals(List.of("1", "2"), ids(index.lookup("may", 10)));
+        assertEquals(50L, index.score("1"));
+        assertNull(index.score("missing"));
+    }
+
+    @Test
+    void lowerScoreLetsAnEntryFallOutOfTheTopK() {
+        put("1", "party1", 10);
+        put("2", "party2", 20);
+        put("3", "party3", 30);
+        put("4", "party4", 5);
+
+        index.setScore("3", 1);
+
+        assertEquals(List.of("2", "1", "4"), ids(index.lookup("part", 10)));
+    }
+
+    @Test
+    void putReplacesKeys() {
+        put("1", "oldname", 1);
+
+        index.put("1", "newname", "newname", List.of("newname"), 1);
+
+        assertTrue(index.lookup("old", 10).isEmpty());
+        assertEquals(List.of("1"), ids(index.lookup("new", 10)));
+        assertEquals("newname", index.get("1").name);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removePrunesTheKeyPath() {
+        put("1", "sen", 1);
+        put("2", "senator", 2);
+
+        index.remove("2");
+        index.remove("missing");
+
+        assertEquals(List.of("1"), ids(index.lookup("sen", 10)));
+        assertTrue(index.lookup("sena", 10).isEmpty());
+
+        index.remove("1");
+        assertTrue(index.lookup("s", 10).isEmpty());
+        assertEquals(0, index.size());
+
+        // The pruned path can be grown again
+        put("3", "senate", 3);
+        assertEquals(List.of("3"), ids(index.lookup("s", 10)));
+    }
+
+    @Test
+    void removedEntryMakesRoomForTheNextBest() {
+        for (int i = 1; i <= 4; i++) {
+            put(String.valueOf(i), "rep" + i, i);
+        }
+
+        index.remove("4");
+
+        assertEquals(List.of("3", "2", "1"), ids(index.lookup("rep", 10)));
+    }
+
+    @Test
+    void entriesWithoutKeysAreNotIndexed() {
+        index.put("1", "blank", "blank", List.of(""), 1);
+
+        assertNull(index.get("1"));
+        assertEquals(0, index.size());
+    }
+
+    private void put(String id, String name, long score) {
+        index.put(id, name, name, List.of(name), score);
+    }
+
+    private static List<String> ids(List<PrefixIndex.Entry> entries) {
+        return entries.stream().map(entry -> entry.id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,116 @@
+package com.jgy36.PoliticalApp.service.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void trigramsArePaddedPerWord() {
+        assertEquals(Set.of("  c", " ca", "cat", "at "), TrigramIndex.trigrams("cat"));
+        assertEquals(Set.of("  a", " ab", "ab ", "  c", " cd", "cd "), TrigramIndex.trigrams("ab-cd"));
+        assertTrue(TrigramIndex.trigrams(" - ").isEmpty());
+    }
+
+    @Test
+    void findsMisspelledNames() {
+        index.put("1", List.of("washington"));
+        index.put("2", List.of("lincoln"));
+
+        assertEquals(List.of("1"), ids(index.search("washingtn", MIN_SIMILARITY, 10, id -> 0)));
+        assertEquals(List.of("2"), ids(index.search("lincon", MIN_SIMILARITY, 10, id -> 0)));
+    }
+
+    @Test
+    void exactMatchHasSimilarityOne() {
+        index.put("1", List.of("senate"));
+
+        TrigramIndex.Match match = index.search("senate", MIN_SIMILARITY, 10, id -> 0).get(0);
+
+        assertEquals("1", match.id);
+        assertEquals(1.0, match.similarity);
+    }
+
+    @Test
+    void dropsMatchesBelowMinSimilarity() {
+        index.put("1", List.of("congress"));
+
+        assertTrue(index.search("progress", 0.9, 10, id -> 0).isEmpty());
+        assertFalse(index.search("progress", 0.2, 10, id -> 0).isEmpty());
+    }
+
+    @Test
+    void ordersBySimilarityThenPopularity() {
+        index.put("exact", List.of("election"));
+        index.put("quiet", List.of("elections"));
+        index.put("popular", List.of("elections"));
+        Map<String, Long> popularity = Map.of("exact", 0L, "quiet", 1L, "popular", 50L);
+
+        List<TrigramIndex.Match> matches = index.search("election", MIN_SIMILARITY, 10, popularity::get);
+
+        assertEquals(List.of("exact", "popular", "quiet"), ids(matches));
+        assertTrue(matches.get(0).similarity > matches.get(1).similarity);
+    }
+
+    @Test
+    void limitKeepsTheBestMatches() {
+        index.put("1", List.of("vote"));
+        index.put("2", List.of("voter"));
+        index.put("3", List.of("voters"));
+
+        assertEquals(List.of("1", "2"), ids(index.search("vote", MIN_SIMILARITY, 2, id -> 0)));
+        assertTrue(index.search("vote", MIN_SIMILARITY, 0, id -> 0).isEmpty());
+    }
+
+    @Test
+    void entryMatchesWithItsBestName() {
+        index.put("1", List.of("jonathan smith", "jsmith"));
+
+        List<TrigramIndex.Match> matches = index.search("jsmith", MIN_SIMILARITY, 10, id -> 0);
+
+        assertEquals(1, matches.size());
+        assertEquals(1.0, matches.get(0).similarity);
+    }
+
+    @Test
+    void putReplacesAnEntrysNames() {
+        index.put("1", List.of("republican"));
+        index.put("1", List.of("democrat"));
+
+        assertTrue(index.search("republican", MIN_SIMILARITY, 10, id -> 0).isEmpty());
+        assertEquals(List.of("1"), ids(index.search("democrat", MIN_SIMILARITY, 10, id -> 0)));
+    }
+
+    @Test
+    void removeDropsTheEntry() {
+        index.put("1", List.of("governor"));
+        index.put("2", List.of("governors"));
+
+        index.remove("1");
+        index.remove("missing");
+
+        assertEquals(List.of("2"), ids(index.search("governor", MIN_SIMILARITY, 10, id -> 0)));
+    }
+
+    @Test
+    void namesWithoutTrigramsAreIgnored() {
+        index.put("1", List.of("", "--"));
+        index.remove("1");
+
+        assertTrue(index.search("", MIN_SIMILARITY, 10, id -> 0).isEmpty());
+    }
+
+    private static List<String> ids(List<TrigramIndex.Match> matches) {
+        return matches.stream().map(match -> match.id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,102 @@
+package com.jgy36.PoliticalApp.service.blacklist;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        assertFalse(filter.mightContain(digest("token")));
+    }
+
+    @Test
+    void addedDigestsAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(digest("revoked-" + i));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(digest("revoked-" + i)));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(digest("revoked-" + i));
+        }
+
+        int falsePositives = 0;
+        int probes = 20_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(digest("valid-" + i))) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; allow for variance
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void tinyAndZeroSizedFiltersStillWork() {
+        BloomFilter filter = new BloomFilter(0, 0.5);
+        filter.add(digest("only"));
+
+        assertTrue(filter.mightContain(digest("only")));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(8000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> adds = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                adds.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        filter.add(digest("revoked-" + thread + "-" + i));
+                    }
+                }));
+            }
+            for (Future<?> add : adds) {
+                add.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(filter.mightContain(digest("revoked-" + t + "-" + i)));
+            }
+        }
+    }
+
+    // Same form as the blacklist's keys: hex SHA-256 of the token
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.jgy36.PoliticalApp.service.feed;
+
+import com.jgy36.PoliticalApp.dto.FeedCursor;
+import com.jgy36.PoliticalApp.entity.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KWayFeedMergerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 11, 5, 12, 0);
+
+    @Test
+    void mergesSourcesNewestFirst() {
+        ListSource a = new ListSource(post(1, 10), post(4, 40), post(6, 60));
+        ListSource b = new ListSource(post(2, 20), post(3, 30), post(5, 50));
+
+        List<Post> page = KWayFeedMerger.merge(List.of(a, b), FeedCursor.start(), 10);
+
+        assertEquals(List.of(6L, 5L, 4L, 3L, 2L, 1L), ids(page));
+    }
+
+    @Test
+    void equalTimestampsAreOrderedByIdDescending() {
+        ListSource a = new ListSource(post(1, 0), post(3, 0));
+        ListSource b = new ListSource(post(2, 0), post(4, 0));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(KWayFeedMerger.merge(List.of(a, b), FeedCursor.start(), 10)));
+    }
+
+    @Test
+    void stopsAtCount() {
+        ListSource a = new ListSource(post(1, 10), post(3, 30), post(5, 50));
+        ListSource b = new ListSource(post(2, 20), post(4, 40), post(6, 60));
+
+        assertEquals(List.of(6L, 5L, 4L), ids(KWayFeedMerger.merge(List.of(a, b), FeedCursor.start(), 3)));
+        assertTrue(KWayFeedMerger.merge(List.of(a, b), FeedCursor.start(), 0).isEmpty());
+        assertTrue(KWayFeedMerger.merge(List.of(), FeedCursor.start(), 3).isEmpty());
+    }
+
+    @Test
+    void pagesContinueFromTheLastPostsCursor() {
+        ListSource a = new ListSource(post(1, 10), post(3, 30), post(5, 50));
+        ListSource b = new ListSource(post(2, 20), post(4, 40), post(6, 60));
+        List<KWayFeedMerger.Source> sources = List.of(a, b);
+
+        List<Post> first = KWayFeedMerger.merge(sources, FeedCursor.start(), 4);
+        List<Post> second = KWayFeedMerger.merge(sources, FeedCursor.of(first.get(first.size() - 1)), 4);
+
+        assertEquals(List.of(6L, 5L, 4L, 3L), ids(first));
+        assertEquals(List.of(2L, 1L), ids(second));
+    }
+
+    @Test
+    void busySourceIsRefilledFromItsLastPost() {
+        ListSource busy = new ListSource(post(1, 10), post(2, 20), post(3, 30), post(4, 40), post(5, 50));
+        ListSource quiet = new ListSource(post(6, 0));
+
+        List<Post> page = KWayFeedMerger.merge(List.of(busy, quiet), FeedCursor.start(), 5);
+
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(page));
+        assertTrue(busy.fetches > 1);
+        // Refills only ask for the rest of the page, so nothing past it is read
+        assertEquals(5, busy.fetched);
+    }
+
+    @Test
+    void exhaustedAndEmptySourcesAreNotFetchedAgain() {
+        ListSource small = new ListSource(post(1, 10));
+        ListSource empty = new ListSource();
+        ListSource big = new ListSource(post(2, 20), post(3, 30), post(4, 40), post(5, 50), post(6, 60));
+
+        List<Post> page = KWayFeedMerger.merge(List.of(small, empty, big), FeedCursor.start(), 6);
+
+        assertEquals(List.of(6L, 5L, 4L, 3L, 2L, 1L), ids(page));
+        assertEquals(1, small.fetches);
+        assertEquals(1, empty.fetches);
+    }
+
+    private static Post post(long id, int minutes) {
+        Post post = new Post();
+        post.setId(id);
+        post.setCreatedAt(T0.plusMinutes(minutes));
+        return post;
+    }
+
+    private static List<Long> ids(List<Post> posts) {
+        return posts.stream().map(Post::getId).collect(Collectors.toList());
+    }
+
+    // A keyset-paginated source over an in-memory list, counting what it's asked for
+    private static final class ListSource implements KWayFeedMerger.Source {
+        private final List<Post> posts = new ArrayList<>();
+        private int fetches;
+        private int fetched;
+
+        ListSource(Post... posts) {
+            this.posts.addAll(List.of(posts));
+            this.posts.sort(Comparator.comparing(Post::getCreatedAt, Comparator.reverseOrder())
+                    .thenComparing(Post::getId, Comparator.reverseOrder()));
+        }
+
+        @Override
+        public List<Post> fetch(FeedCursor after, int count) {
+            fetches++;
+            List<Post> chunk = posts.stream()
+                    .filter(post -> post.getCreatedAt().isBefore(after.getCreatedAt())
+                            || (post.getCreatedAt().isEqual(after.getCreatedAt()) && post.getId() < after.getId()))
+                    .limit(count)
+                    .collect(Collectors.toList());
+            fetched += chunk.size();
+            return chunk;
+        }
+    }
+}
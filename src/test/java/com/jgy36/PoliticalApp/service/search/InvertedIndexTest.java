@@ -0,0 +1,121 @@
+package com.jgy36.PoliticalApp.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void matchesOnlyDocumentsWithEveryTerm() {
+        index.put(1, List.of("tax", "reform"));
+        index.put(2, List.of("tax", "cut"));
+        index.put(3, List.of("reform"));
+
+        SearchHits hits = index.search(List.of("tax", "reform"), 0, 10);
+
+        assertEquals(List.of(1L), hits.getIds());
+        assertEquals(1, hits.getTotal());
+        assertSame(SearchHits.EMPTY, index.search(List.of("tax", "unknown"), 0, 10));
+    }
+
+    @Test
+    void higherTermFrequencyRanksFirst() {
+        index.put(1, List.of("vote", "today", "please"));
+        index.put(2, List.of("vote", "vote", "vote"));
+
+        assertEquals(List.of(2L, 1L), index.search(List.of("vote"), 0, 10).getIds());
+    }
+
+    @Test
+    void shorterDocumentRanksFirstAtEqualFrequency() {
+        index.put(1, List.of("budget", "talks", "stall", "again"));
+        index.put(2, List.of("budget", "passes"));
+
+        assertEquals(List.of(2L, 1L), index.search(List.of("budget"), 0, 10).getIds());
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        // Same length, same total frequency; 1 repeats the rare term, 2 the common one
+        index.put(1, List.of("senate", "senate", "common"));
+        index.put(2, List.of("senate", "common", "common"));
+        index.put(3, List.of("common"));
+        index.put(4, List.of("common"));
+
+        assertEquals(List.of(1L, 2L), index.search(List.of("senate", "common"), 0, 10).getIds());
+        assertEquals(2, index.documentFrequency("senate"));
+        assertEquals(4, index.documentFrequency("common"));
+    }
+
+    @Test
+    void tiesGoToTheNewestId() {
+        index.put(1, List.of("debate"));
+        index.put(3, List.of("debate"));
+        index.put(2, List.of("debate"));
+
+        assertEquals(List.of(3L, 2L, 1L), index.search(List.of("debate"), 0, 10).getIds());
+    }
+
+    @Test
+    void offsetAndLimitPageThroughTheRanking() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, List.of("poll"));
+        }
+
+        SearchHits page = index.search(List.of("poll"), 1, 2);
+
+        assertEquals(List.of(4L, 3L), page.getIds());
+        assertEquals(5, page.getTotal());
+        assertEquals(List.of(), index.search(List.of("poll"), 5, 2).getIds());
+        assertSame(SearchHits.EMPTY, index.search(List.of("poll"), 0, 0));
+    }
+
+    @Test
+    void duplicateQueryTermsCountOnce() {
+        index.put(1, List.of("policy"));
+
+        assertEquals(List.of(1L), index.search(List.of("policy", "policy"), 0, 10).getIds());
+    }
+
+    @Test
+    void putReplacesTheDocument() {
+        index.put(1, List.of("old", "words"));
+        index.put(1, List.of("new", "words"));
+
+        assertSame(SearchHits.EMPTY, index.search(List.of("old"), 0, 10));
+        assertEquals(List.of(1L), index.search(List.of("new"), 0, 10).getIds());
+        assertEquals(1, index.documentFrequency("words"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removeDropsThePostings() {
+        index.put(1, List.of("recall"));
+        index.put(2, List.of("recall", "vote"));
+
+        index.remove(1);
+        index.remove(99);
+
+        assertEquals(List.of(2L), index.search(List.of("recall"), 0, 10).getIds());
+        assertEquals(0, index.documentFrequency("missing"));
+        assertEquals(1, index.documentFrequency("recall"));
+
+        index.remove(2);
+        assertEquals(0, index.size());
+        assertEquals(0, index.documentFrequency("vote"));
+        assertSame(SearchHits.EMPTY, index.search(List.of("recall"), 0, 10));
+    }
+
+    @Test
+    void emptyDocumentsAreNotIndexed() {
+        index.put(1, List.of());
+
+        assertEquals(0, index.size());
+        assertSame(SearchHits.EMPTY, index.search(List.of(), 0, 10));
+    }
+}
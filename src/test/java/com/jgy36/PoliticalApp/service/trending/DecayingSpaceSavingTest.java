@@ -0,0 +1,116 @@
+package com.jgy36.PoliticalApp.service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecayingSpaceSavingTest {
+
+    private static final long TAU = 1000;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void ordersByCountHighestFirst() {
+        DecayingSpaceSaving sketch = new DecayingSpaceSaving(10, TAU, 0);
+        add(sketch, "#b", 2, 0);
+        add(sketch, "#a", 3, 0);
+        add(sketch, "#c", 1, 0);
+
+        List<TrendingTag> top = sketch.top(10, 0);
+
+        assertEquals(List.of("#a", "#b", "#c"), tags(top));
+        assertEquals(3, top.get(0).getScore(), DELTA);
+        assertEquals(0, top.get(0).getError(), DELTA);
+    }
+
+    @Test
+    void topIsLimitedToK() {
+        DecayingSpaceSaving sketch = new DecayingSpaceSaving(10, TAU, 0);
+        add(sketch, "#a", 3, 0);
+        add(sketch, "#b", 2, 0);
+        add(sketch, "#c", 1, 0);
+
+        assertEquals(List.of("#a", "#b"), tags(sketch.top(2, 0)));
+        assertTrue(sketch.top(0, 0).isEmpty());
+        assertTrue(new DecayingSpaceSaving(10, TAU, 0).top(5, 0).isEmpty());
+    }
+
+    @Test
+    void countsDecayByTau() {
+        DecayingSpaceSaving sketch = new DecayingSpaceSaving(10, TAU, 0);
+        sketch.add("#a", 0);
+
+        assertEquals(Math.exp(-1), sketch.top(1, TAU).get(0).getScore(), DELTA);
+    }
+
+    @Test
+    void recentEventsOutrankOlderOnes() {
+        DecayingSpaceSaving sketch = new DecayingSpaceSaving(10, TAU, 0);
+        add(sketch, "#old", 3, 0);
+        add(sketch, "#new", 2, 3 * TAU);
+
+        assertEquals(List.of("#new", "#old"), tags(sketch.top(2, 3 * TAU)));
+    }
+
+    @Test
+    void fullSketchEvictsTheMinimumAndInheritsItsCount() {
+        DecayingSpaceSaving sketch = new DecayingSpaceSaving(2, TAU, 0);
+        add(sketch, "#a", 5, 0);
+        add(sketch, "#b", 2, 0);
+
+        sketch.add("#c", 0);
+
+        assertEquals(2, sketch.size());
+        List<TrendingTag> top = sketch.top(2, 0);
+        assertEquals(List.of("#a", "#c"), tags(top));
+        // Overestimated by the evicted count, which is reported as the error
+        assertEquals(3, top.get(1).getScore(), DELTA);
+        assertEquals(2, top.get(1).getError(), DELTA);
+    }
+
+    @Test
+    void heavyHittersSurviveChurn() {
+        DecayingSpaceSaving sketch = new DecayingSpaceSaving(5, TAU, 0);
+        for (int i = 0; i < 200; i++) {
+            sketch.add("#hot", 0);
+            sketch.add("#rare" + i, 0);
+        }
+
+        assertEquals(5, sketch.size());
+        TrendingTag top = sketch.top(1, 0).get(0);
+        assertEquals("#hot", top.getTag());
+        assertTrue(top.getScore() - top.getError() <= 200 + DELTA);
+        assertTrue(top.getScore() >= 200 - DELTA);
+    }
+
+    @Test
+    void rescalingKeepsCountsAndOrder() {
+        DecayingSpaceSaving sketch = new DecayingSpaceSaving(10, TAU, 0);
+        long later = 100 * TAU;
+        add(sketch, "#a", 2, later);
+        sketch.add("#b", later);
+        // Past the rescale point; decayed to later + 50 tau this is e^50 times smaller
+        long muchLater = 150 * TAU;
+        sketch.add("#c", muchLater);
+
+        List<TrendingTag> top = sketch.top(3, muchLater);
+
+        assertEquals(List.of("#c", "#a", "#b"), tags(top));
+        assertEquals(1, top.get(0).getScore(), DELTA);
+        assertEquals(2 * Math.exp(-50), top.get(1).getScore(), 1e-30);
+        assertFalse(Double.isInfinite(top.get(0).getScore()));
+    }
+
+    private static void add(DecayingSpaceSaving sketch, String tag, int times, long timestamp) {
+        for (int i = 0; i < times; i++) {
+            sketch.add(tag, timestamp);
+        }
+    }
+
+    private static List<String> tags(List<TrendingTag> top) {
+        return top.stream().map(TrendingTag::getTag).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,218 @@
+package com.jgy36.PoliticalApp.service.unread;
+
+import com.jgy36.PoliticalApp.entity.*;
+import com.jgy36.PoliticalApp.service.MessageService;
+import com.jgy36.PoliticalApp.service.NotificationService;
+import com.jgy36.PoliticalApp.service.messaging.MessagingGateway;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:unread;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UnreadCounters.class, MessageService.class})
+class UnreadCountersTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private MessageService messageService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private MessagingGateway messagingGateway;
+
+    private User sender;
+    private User recipient;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        // Joins the test transaction, or commits for the tests that run without one
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            sender = persistUser("sender");
+            recipient = persistUser("recipient");
+            conversation = new Conversation(sender, recipient);
+            entityManager.persist(conversation);
+        });
+    }
+
+    @Test
+    void missingRowsAreSeededFromUnreadRows() {
+        persistMessages(2);
+        persistNotification(false);
+        persistNotification(true);
+
+        assertEquals(2, unreadCounters.messages(recipient.getId()));
+        assertEquals(1, unreadCounters.notifications(recipient.getId()));
+        assertEquals(2, unreadCounters.conversation(conversation.getId(), recipient.getId()));
+        assertEquals(Map.of(conversation.getId(), 2),
+                unreadCounters.conversations(recipient.getId(), List.of(conversation.getId())));
+        // The sender's own messages never count for them
+        assertEquals(0, unreadCounters.messages(sender.getId()));
+    }
+
+    @Test
+    void firstMessageSeedsCountersWithoutCountingItTwice() {
+        receive(1);
+
+        assertEquals(1, unreadCounters.messages(recipient.getId()));
+        assertEquals(1, unreadCounters.conversation(conversation.getId(), recipient.getId()));
+    }
+
+    @Test
+    void seededRowsAreAdjustedInPlace() {
+        receive(2);
+        // Written behind the counters' back, so only a reseed would pick it up
+        persistMessages(5);
+
+        receive(1);
+        unreadCounters.adjustNotifications(recipient.getId(), 4);
+        unreadCounters.adjustNotifications(recipient.getId(), -1);
+
+        assertEquals(3, unreadCounters.messages(recipient.getId()));
+        assertEquals(3, unreadCounters.conversation(conversation.getId(), recipient.getId()));
+        assertEquals(3, unreadCounters.notifications(recipient.getId()));
+    }
+
+    @Test
+    void countsNeverGoNegative() {
+        unreadCounters.adjustNotifications(recipient.getId(), -3);
+        unreadCounters.messagesRead(conversation.getId(), recipient.getId(), 2);
+
+        assertEquals(0, unreadCounters.notifications(recipient.getId()));
+        assertEquals(0, unreadCounters.messages(recipient.getId()));
+        assertEquals(0, unreadCounters.conversation(conversation.getId(), recipient.getId()));
+    }
+
+    @Test
+    void markConversationAsReadClearsOnlyWhatItRead() {
+        receive(3);
+
+        messageService.markConversationAsRead(conversation, recipient);
+        receive(1);
+
+        assertEquals(1, unreadCounters.messages(recipient.getId()));
+        assertEquals(1, unreadCounters.conversation(conversation.getId(), recipient.getId()));
+    }
+
+    @Test
+    void markConversationAsReadWithNothingUnreadLeavesCountsAlone() {
+        receive(2);
+        messageService.markConversationAsRead(conversation, recipient);
+
+        messageService.markConversationAsRead(conversation, recipient);
+
+        assertEquals(0, unreadCounters.messages(recipient.getId()));
+        assertEquals(0, unreadCounters.conversation(conversation.getId(), recipient.getId()));
+    }
+
+    @Test
+    void markConversationAsReadWithUserRowSeededAndConversationRowMissing() {
+        receive(3);
+        assertEquals(3, unreadCounters.messages(recipient.getId()));
+        // The nightly clear followed by a badge read reseeds only the user row
+        jdbcTemplate.update("DELETE FROM conversation_unread_counts");
+
+        messageService.markConversationAsRead(conversation, recipient);
+
+        assertEquals(0, unreadCounters.conversation(conversation.getId(), recipient.getId()));
+        assertEquals(0, unreadCounters.messages(recipient.getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void concurrentFirstNotificationsSeedOnce() throws Exception {
+        int threads = 8;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> receives = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                receives.add(executor.submit(() -> {
+                    start.await();
+                    transaction.executeWithoutResult(status -> {
+                        persistNotification(false);
+                        unreadCounters.adjustNotifications(recipient.getId(), 1);
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : receives) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Each seed counts the committed notifications; losing the seed race must still apply the +1
+        assertEquals(threads, unreadCounters.notifications(recipient.getId()));
+    }
+
+    private void receive(int count) {
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(new Message(conversation, sender, "message " + i));
+            entityManager.flush();
+            unreadCounters.messageReceived(conversation.getId(), recipient.getId());
+        }
+    }
+
+    // Unread messages the counters weren't told about
+    private void persistMessages(int count) {
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(new Message(conversation, sender, "message " + i));
+        }
+        entityManager.flush();
+    }
+
+    private void persistNotification(boolean read) {
+        Notification notification = new Notification();
+        notification.setRecipient(recipient);
+        notification.setMessage("notification");
+        notification.setRead(read);
+        entityManager.persist(notification);
+        entityManager.flush();
+    }
+
+    private User persistUser(String username) {
+        User user = new User(username, username + "@example.com", "password", Role.ROLE_USER);
+        entityManager.persist(user);
+        return user;
+    }
+}
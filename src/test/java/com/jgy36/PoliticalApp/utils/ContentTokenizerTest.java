@@ -0,0 +1,112 @@
+package com.jgy36.PoliticalApp.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentTokenizerTest {
+
+    // The regexes ContentTokenizer replaced
+    private static final Pattern HASHTAG = Pattern.compile("#(\\w+)");
+    private static final Pattern MENTION = Pattern.compile("@(\\w+(?:-\\w+)*)");
+
+    @Test
+    void emptyAndNullContentHaveNoTokens() {
+        for (String content : new String[]{null, "", "no tokens here", "# @ #- @-"}) {
+            ContentTokenizer.Tokens tokens = ContentTokenizer.tokenize(content);
+            assertTrue(tokens.getHashtags().isEmpty(), content);
+            assertTrue(tokens.getMentions().isEmpty(), content);
+        }
+    }
+
+    @Test
+    void hashtagsKeepTheirPrefix() {
+        assertTokens("Vote #today and #Vote2024!", List.of("#today", "#Vote2024"), List.of());
+    }
+
+    @Test
+    void hyphenatedMentions() {
+        assertTokens("cc @jean-luc and @a-b-c_d", List.of(), List.of("jean-luc", "a-b-c_d"));
+    }
+
+    @Test
+    void trailingAndDoubleHyphensEndTheMention() {
+        assertTokens("@dash- @double--hyphen @end-.", List.of(), List.of("dash", "double", "end"));
+    }
+
+    @Test
+    void repeatedPrefixes() {
+        assertTokens("##tag @@user #@x @#y", List.of("#tag", "#y"), List.of("user", "x"));
+    }
+
+    @Test
+    void adjacentTokens() {
+        assertTokens("#a#b@c@d-e#f", List.of("#a", "#b", "#f"), List.of("c", "d-e"));
+        assertTokens("mail me at name@example.com", List.of(), List.of("example"));
+    }
+
+    @Test
+    void nonAsciiLettersEndTheToken() {
+        // Like \w without UNICODE_CHARACTER_CLASS, only ASCII letters and digits count
+        assertTokens("#café @zoë #ünique @名前", List.of("#caf"), List.of("zo"));
+    }
+
+    @Test
+    void duplicatesAreKeptInOrderAndDistinctSetsDropThem() {
+        ContentTokenizer.Tokens tokens = ContentTokenizer.tokenize("#b #a #b @x @x");
+
+        assertEquals(List.of("#b", "#a", "#b"), tokens.getHashtags());
+        assertEquals(List.of("#b", "#a"), new ArrayList<>(tokens.getDistinctHashtags()));
+        assertEquals(Set.of("x"), tokens.getDistinctMentions());
+    }
+
+    @Test
+    void matchesTheOldRegexesOnRandomText() {
+        char[] alphabet = {'#', '@', '-', '_', 'a', 'Z', '7', ' ', '.', 'é', '\n'};
+        Random random = new Random(42);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder content = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int i = 0; i < length; i++) {
+                content.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String text = content.toString();
+            ContentTokenizer.Tokens tokens = ContentTokenizer.tokenize(text);
+            assertEquals(regexHashtags(text), tokens.getHashtags(), text);
+            assertEquals(regexMentions(text), tokens.getMentions(), text);
+        }
+    }
+
+    private static void assertTokens(String content, List<String> hashtags, List<String> mentions) {
+        ContentTokenizer.Tokens tokens = ContentTokenizer.tokenize(content);
+        assertEquals(hashtags, tokens.getHashtags());
+        assertEquals(mentions, tokens.getMentions());
+        assertEquals(regexHashtags(content), tokens.getHashtags());
+        assertEquals(regexMentions(content), tokens.getMentions());
+    }
+
+    private static List<String> regexHashtags(String content) {
+        List<String> hashtags = new ArrayList<>();
+        Matcher matcher = HASHTAG.matcher(content);
+        while (matcher.find()) {
+            hashtags.add(matcher.group());
+        }
+        return hashtags;
+    }
+
+    private static List<String> regexMentions(String content) {
+        List<String> mentions = new ArrayList<>();
+        Matcher matcher = MENTION.matcher(content);
+        while (matcher.find()) {
+            mentions.add(matcher.group(1));
+        }
+        return mentions;
+    }
+}